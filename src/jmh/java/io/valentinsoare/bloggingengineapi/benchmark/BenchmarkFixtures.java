@@ -0,0 +1,54 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.valentinsoare.bloggingengineapi.entity.Author;
+import io.valentinsoare.bloggingengineapi.entity.Category;
+import io.valentinsoare.bloggingengineapi.entity.Comment;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+
+import java.util.HashSet;
+
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {}
+
+    static Post post(long id, int authors, int categories, int comments) {
+        Post post = new Post()
+                .setId(id)
+                .setTitle("Post title " + id)
+                .setDescription("Post description " + id)
+                .setContent("Post content ".repeat(500))
+                .setAuthors(new HashSet<>())
+                .setCategories(new HashSet<>())
+                .setComments(new HashSet<>());
+
+        for (long i = 0; i < authors; i++) {
+            post.addAuthor(new Author()
+                    .setId(i)
+                    .setFirstName("John" + i)
+                    .setLastName("Doe" + i)
+                    .setEmail("john.doe%s@gmail.com".formatted(i))
+                    .setAllPosts(new HashSet<>()));
+        }
+
+        for (long i = 0; i < categories; i++) {
+            post.addCategory(new Category()
+                    .setId(i)
+                    .setName("Category " + i)
+                    .setDescription("Category description " + i)
+                    .setPosts(new HashSet<>()));
+        }
+
+        for (long i = 0; i < comments; i++) {
+            post.addComment(comment(i));
+        }
+
+        return post;
+    }
+
+    static Comment comment(long id) {
+        return new Comment()
+                .setId(id)
+                .setName("Jane" + id)
+                .setEmail("jane%s@gmail.com".formatted(id))
+                .setBody("Comment body ".repeat(40) + id);
+    }
+}
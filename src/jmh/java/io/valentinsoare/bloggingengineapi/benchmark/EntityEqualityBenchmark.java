@@ -0,0 +1,48 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.valentinsoare.bloggingengineapi.entity.Comment;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityEqualityBenchmark {
+    private Post post;
+    private Post samePost;
+    private Comment comment;
+    private Comment sameComment;
+
+    @Setup
+    public void setUp() {
+        post = BenchmarkFixtures.post(1L, 3, 3, 0);
+        samePost = BenchmarkFixtures.post(1L, 3, 3, 0);
+
+        comment = BenchmarkFixtures.comment(1L);
+        sameComment = BenchmarkFixtures.comment(1L);
+        post.addComment(comment);
+        samePost.addComment(sameComment);
+    }
+
+    @Benchmark
+    public int postHashCode() {
+        return post.hashCode();
+    }
+
+    @Benchmark
+    public boolean postEquals() {
+        return post.equals(samePost);
+    }
+
+    @Benchmark
+    public int commentHashCode() {
+        return comment.hashCode();
+    }
+
+    @Benchmark
+    public boolean commentEquals() {
+        return comment.equals(sameComment);
+    }
+}
@@ -0,0 +1,49 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.valentinsoare.bloggingengineapi.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    private static final String SECRET = "f6e9567a0b93eb68a5d331d163494adb14adfa067d148c3c165efa59928dfc95";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 900_000L, 10_000L);
+
+        authentication = new UsernamePasswordAuthenticationToken("user", null);
+        token = jwtTokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(authentication);
+    }
+
+    // the request is only touched when validation fails
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token, null);
+    }
+
+    @Benchmark
+    public Claims verifyTokenCached() {
+        return jwtTokenProvider.verifyToken(token, null);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenProvider.getUsernameFromToken(token);
+    }
+}
@@ -0,0 +1,53 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+import io.valentinsoare.bloggingengineapi.mapper.AuthorMapper;
+import io.valentinsoare.bloggingengineapi.mapper.CategoryMapper;
+import io.valentinsoare.bloggingengineapi.mapper.CommentMapper;
+import io.valentinsoare.bloggingengineapi.mapper.PostMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+    @Param({"0", "25"})
+    private int comments;
+
+    private Post post;
+    private PostDto postDto;
+    private PostMapper postMapper;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        post = BenchmarkFixtures.post(1L, 3, 3, comments);
+        postMapper = new PostMapper(new AuthorMapper(), new CategoryMapper(), new CommentMapper());
+        modelMapper = new ModelMapper();
+        postDto = postMapper.mapToDTO(post);
+    }
+
+    @Benchmark
+    public PostDto postToDtoWithPostMapper() {
+        return postMapper.mapToDTO(post);
+    }
+
+    @Benchmark
+    public PostDto postToDtoWithModelMapper() {
+        return modelMapper.map(post, PostDto.class);
+    }
+
+    @Benchmark
+    public Post dtoToPostWithPostMapper() {
+        return postMapper.mapToEntity(postDto);
+    }
+
+    @Benchmark
+    public Post dtoToPostWithModelMapper() {
+        return modelMapper.map(postDto, Post.class);
+    }
+}
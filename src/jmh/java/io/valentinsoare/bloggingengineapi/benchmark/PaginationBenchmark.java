@@ -0,0 +1,30 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaginationBenchmark {
+    private AuxiliaryMethods auxiliaryMethods;
+
+    @Setup
+    public void setUp() {
+        auxiliaryMethods = AuxiliaryMethods.getInstance();
+    }
+
+    @Benchmark
+    public Pageable sortingWithDirections() {
+        return auxiliaryMethods.sortingWithDirections("desc", "title", 42, 10);
+    }
+
+    @Benchmark
+    public Sort keysetSortWithDirections() {
+        return auxiliaryMethods.keysetSortWithDirections("desc", "title");
+    }
+}
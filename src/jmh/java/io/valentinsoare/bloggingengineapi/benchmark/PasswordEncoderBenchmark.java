@@ -0,0 +1,30 @@
+package io.valentinsoare.bloggingengineapi.benchmark;
+
+import io.valentinsoare.bloggingengineapi.utilities.EncodedPasswordGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+    private static final String PASSWORD = "password";
+
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        encodedPassword = EncodedPasswordGenerator.encodePassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String encodePassword() {
+        return EncodedPasswordGenerator.encodePassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return EncodedPasswordGenerator.matches(PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,335 @@
+package io.valentinsoare.bloggingengineapi.buffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
+import io.valentinsoare.bloggingengineapi.dto.CommentDto;
+import io.valentinsoare.bloggingengineapi.repository.CommentJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for comments, enabled with app.comments.write-behind.enabled=true.
+ * Accepted comments are written by a single flusher thread in multi-row batches, every
+ * flush-interval-ms or as soon as batch-size comments are waiting, whichever comes first.
+ * Comments that cannot be written, after max-flush-attempts or at shutdown, are appended to
+ * spill-file and put back in the queue on the next startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBuffer {
+    private final ConcurrentLinkedQueue<CommentDto> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    // offers hold the read lock while they enqueue, shutdown takes the write lock to stop accepting,
+    // so nothing is enqueued after the final flush
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private boolean accepting = true;
+
+    private final CommentJdbcRepository commentJdbcRepository;
+    private final PostCache postCache;
+    private final TransactionTemplate flushTransaction;
+    private final ObjectMapper objectMapper;
+    private final Path spillFile;
+    private final int capacity;
+    private final int batchSize;
+    private final int maxFlushAttempts;
+
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Counter spilled;
+
+    // only touched by the flusher thread
+    private List<CommentDto> retryBatch = List.of();
+    private int retryAttempts;
+
+    public CommentWriteBuffer(CommentJdbcRepository commentJdbcRepository,
+                              PostCache postCache,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              ObjectMapper objectMapper,
+                              @Value("${app.comments.write-behind.capacity:10000}") int capacity,
+                              @Value("${app.comments.write-behind.batch-size:500}") int batchSize,
+                              @Value("${app.comments.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                              @Value("${app.comments.write-behind.max-flush-attempts:5}") int maxFlushAttempts,
+                              @Value("${app.comments.write-behind.spill-file:comment-write-behind.jsonl}") String spillFile) {
+        this.commentJdbcRepository = commentJdbcRepository;
+        this.postCache = postCache;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.spillFile = Path.of(spillFile);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxFlushAttempts = maxFlushAttempts;
+
+        Gauge.builder("bloggingengine.comments.buffer.depth", depth, AtomicInteger::get)
+                .description("Comments accepted but not yet written")
+                .register(meterRegistry);
+
+        this.flushTimer = Timer.builder("bloggingengine.comments.buffer.flush")
+                .description("Latency of one batched comment flush")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.written = meterRegistry.counter("bloggingengine.comments.buffer.written");
+        this.rejected = meterRegistry.counter("bloggingengine.comments.buffer.rejected");
+        this.dropped = meterRegistry.counter("bloggingengine.comments.buffer.dropped");
+        this.spilled = meterRegistry.counter("bloggingengine.comments.buffer.spilled");
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns false when the buffer is full or shutting down, the caller should answer 429.
+     */
+    public boolean offer(CommentDto commentDto) {
+        gate.readLock().lock();
+
+        try {
+            return enqueue(commentDto);
+        } finally {
+            gate.readLock().unlock();
+        }
+    }
+
+    private boolean enqueue(CommentDto commentDto) {
+        if (!accepting) {
+            rejected.increment();
+            return false;
+        }
+
+        int current;
+
+        do {
+            current = depth.get();
+
+            if (current >= capacity) {
+                rejected.increment();
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+
+        queue.offer(commentDto);
+
+        if (current + 1 >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+
+                // not picked up by a flush yet, so take it back and let the caller answer 429
+                if (queue.remove(commentDto)) {
+                    depth.decrementAndGet();
+                    rejected.increment();
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private List<CommentDto> drainBatch() {
+        List<CommentDto> batch = new ArrayList<>(batchSize);
+        CommentDto commentDto;
+
+        while (batch.size() < batchSize && (commentDto = queue.poll()) != null) {
+            batch.add(commentDto);
+        }
+
+        depth.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private Set<Long> writeBatch(List<CommentDto> batch) {
+        Set<Long> existingPostIds = commentJdbcRepository.findExistingPostIds(
+                batch.stream().map(CommentDto::getPostId).collect(Collectors.toSet()));
+
+        List<CommentDto> accepted = batch.stream()
+                .filter(c -> existingPostIds.contains(c.getPostId()))
+                .toList();
+
+        if (accepted.size() < batch.size()) {
+            dropped.increment(batch.size() - accepted.size());
+            log.warn("Dropped {} buffered comments for posts that no longer exist.", batch.size() - accepted.size());
+        }
+
+        Map<Long, Long> addedByPostId = accepted.stream()
+                .collect(Collectors.groupingBy(CommentDto::getPostId, Collectors.counting()));
+
+        commentJdbcRepository.insertComments(accepted);
+        commentJdbcRepository.addToCommentCounts(addedByPostId);
+        written.increment(accepted.size());
+        return addedByPostId.keySet();
+    }
+
+    private boolean flushBatch(List<CommentDto> batch) {
+        Timer.Sample sample = Timer.start();
+
+        try {
+            Set<Long> touchedPostIds = flushTransaction.execute(status -> writeBatch(batch));
+
+            if (touchedPostIds != null) {
+                touchedPostIds.forEach(postCache::evict);
+            }
+
+            return true;
+        } catch (Exception e) {
+            log.error("Flushing {} buffered comments failed: {}", batch.size(), e.getMessage());
+            return false;
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    // a failed batch is retried first on the next run, meanwhile the queue fills up and callers get 429
+    private void flush() {
+        flushRequested.set(false);
+
+        if (!retryBatch.isEmpty()) {
+            if (!flushBatch(retryBatch)) {
+                if (++retryAttempts < maxFlushAttempts) {
+                    return;
+                }
+
+                log.error("Giving up on {} buffered comments after {} failed flushes.", retryBatch.size(), retryAttempts);
+                spill(retryBatch);
+            }
+
+            retryBatch = List.of();
+            retryAttempts = 0;
+        }
+
+        List<CommentDto> batch;
+
+        while (!(batch = drainBatch()).isEmpty()) {
+            if (!flushBatch(batch)) {
+                retryBatch = batch;
+                retryAttempts = 1;
+                return;
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Comment write-behind flush failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        gate.writeLock().lock();
+
+        try {
+            accepting = false;
+        } finally {
+            gate.writeLock().unlock();
+        }
+
+        flusher.shutdown();
+
+        if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Comment write-behind flusher did not stop in time.");
+        }
+
+        flush();
+
+        List<CommentDto> unwritten = new ArrayList<>(retryBatch);
+        List<CommentDto> batch;
+
+        while (!(batch = drainBatch()).isEmpty()) {
+            unwritten.addAll(batch);
+        }
+
+        retryBatch = List.of();
+        spill(unwritten);
+    }
+
+    private void spill(List<CommentDto> comments) {
+        if (comments.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<String> lines = new ArrayList<>(comments.size());
+
+            for (CommentDto commentDto : comments) {
+                lines.add(objectMapper.writeValueAsString(commentDto));
+            }
+
+            Files.write(spillFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilled.increment(comments.size());
+            log.warn("Saved {} unwritten comments to {}, they are queued again on the next startup.", comments.size(), spillFile);
+        } catch (IOException e) {
+            dropped.increment(comments.size());
+            log.error("Dropped {} unwritten comments, saving them to {} failed: {}", comments.size(), spillFile, e.getMessage());
+        }
+    }
+
+    // the whole file is parsed before anything is queued, so a bad line leaves it in place and queues nothing twice
+    @PostConstruct
+    public void restoreSpilled() {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+
+        try {
+            List<CommentDto> restored = new ArrayList<>();
+
+            for (String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    restored.add(objectMapper.readValue(line, CommentDto.class));
+                }
+            }
+
+            queue.addAll(restored);
+            depth.addAndGet(restored.size());
+            Files.delete(spillFile);
+            log.info("Queued {} comments saved by an earlier run from {}.", restored.size(), spillFile);
+        } catch (IOException e) {
+            log.error("Restoring saved comments from {} failed, leaving the file in place: {}", spillFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.valentinsoare.bloggingengineapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+@Component
+public class PostCache {
+    private final Cache<Long, PostDto> postsById;
+    private final Cache<String, Long> postIdsByTitle;
+    private final PostCacheTier secondTier;
+
+    public PostCache(@Value("${app.cache.posts.max-size:1000}") long maxSize,
+                     @Value("${app.cache.posts.ttl-seconds:600}") long ttlSeconds,
+                     MeterRegistry meterRegistry,
+                     ObjectProvider<PostCacheTier> secondTier) {
+        this.postsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        this.postIdsByTitle = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        this.secondTier = secondTier.getIfAvailable();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, postsById, "posts");
+    }
+
+    public Optional<PostDto> getById(Long postId) {
+        PostDto cachedPost = postsById.getIfPresent(postId);
+
+        if (cachedPost != null) {
+            return Optional.of(cachedPost);
+        }
+
+        if (secondTier == null) {
+            return Optional.empty();
+        }
+
+        Optional<PostDto> sharedPost = secondTier.get(postId);
+        sharedPost.ifPresent(this::putLocal);
+
+        return sharedPost;
+    }
+
+    public Optional<PostDto> getByTitle(String title) {
+        Long postId = postIdsByTitle.getIfPresent(title);
+
+        if (postId == null) {
+            return Optional.empty();
+        }
+
+        // a renamed post keeps its stale title entry until it expires, so check it still matches
+        return getById(postId).filter(postDto -> Objects.equals(postDto.getTitle(), title));
+    }
+
+    public void put(PostDto postDto) {
+        putLocal(postDto);
+
+        if (secondTier != null) {
+            secondTier.put(postDto);
+        }
+    }
+
+    public void evict(Long postId) {
+        evictNow(postId);
+        runAfterCommit(() -> evictNow(postId));
+    }
+
+    public void clear() {
+        clearNow();
+        runAfterCommit(this::clearNow);
+    }
+
+    private void putLocal(PostDto postDto) {
+        postsById.put(postDto.getId(), postDto);
+        postIdsByTitle.put(postDto.getTitle(), postDto.getId());
+    }
+
+    private void evictNow(Long postId) {
+        PostDto cachedPost = postsById.getIfPresent(postId);
+
+        if (cachedPost != null) {
+            postIdsByTitle.invalidate(cachedPost.getTitle());
+        }
+
+        postsById.invalidate(postId);
+
+        if (secondTier != null) {
+            secondTier.evict(postId);
+        }
+    }
+
+    private void clearNow() {
+        postsById.invalidateAll();
+        postIdsByTitle.invalidateAll();
+
+        if (secondTier != null) {
+            secondTier.clear();
+        }
+    }
+
+    // a concurrent reader may re-cache the old state before the writer commits, so evict once more afterwards
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package io.valentinsoare.bloggingengineapi.cache;
+
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+
+import java.util.Optional;
+
+/**
+ * Shared second-level store behind the in-process post cache (e.g. Redis).
+ * Register an implementation as a bean and {@link PostCache} will pick it up.
+ */
+public interface PostCacheTier {
+    Optional<PostDto> get(Long postId);
+    void put(PostDto postDto);
+    void evict(Long postId);
+    void clear();
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
 import io.valentinsoare.bloggingengineapi.response.AuthorResponse;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.service.AuthorService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -156,4 +157,19 @@ public class AuthorController {
         Long count = authorService.countAuthors();
         return new ResponseEntity<>(count, HttpStatus.OK);
     }
+
+    @DeleteMapping("/all")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @Operation(
+            summary = "Delete all authors",
+            description = "Queue a background job that deletes all authors in chunks."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Delete job for all authors queued."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllAuthors() {
+        return new ResponseEntity<>(authorService.deleteAllAuthors(), HttpStatus.ACCEPTED);
+    }
 }
@@ -0,0 +1,68 @@
+package io.valentinsoare.bloggingengineapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.valentinsoare.bloggingengineapi.purge.BulkDeleteEngine;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bulk-deletes")
+@PreAuthorize("hasAnyRole('ADMIN')")
+@Tag(name = "Bulk deletes", description = "These endpoints are for following and cancelling bulk delete jobs.")
+public class BulkDeleteController {
+    private final BulkDeleteEngine bulkDeleteEngine;
+
+    public BulkDeleteController(BulkDeleteEngine bulkDeleteEngine) {
+        this.bulkDeleteEngine = bulkDeleteEngine;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "List bulk delete jobs",
+            description = "List queued, running and recently finished bulk delete jobs, newest first."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Jobs retrieved successfully."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<List<BulkDeleteJobResponse>> getJobs() {
+        return new ResponseEntity<>(bulkDeleteEngine.getJobs(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(
+            summary = "Get bulk delete job",
+            description = "Get the status and progress of a bulk delete job."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Job retrieved successfully."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> getJob(@PathVariable String jobId) {
+        return new ResponseEntity<>(bulkDeleteEngine.getJob(jobId), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{jobId}")
+    @Operation(
+            summary = "Cancel bulk delete job",
+            description = "Cancel a bulk delete job. The chunk in progress is committed, no further chunks run."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Cancellation requested."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> cancelJob(@PathVariable String jobId) {
+        return new ResponseEntity<>(bulkDeleteEngine.cancel(jobId), HttpStatus.ACCEPTED);
+    }
+}
@@ -2,17 +2,23 @@ package io.valentinsoare.bloggingengineapi.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.CategoryResponse;
 import io.valentinsoare.bloggingengineapi.service.CategoryService;
 import io.valentinsoare.bloggingengineapi.utilities.ApplicationConstants;
+import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -44,16 +50,25 @@ public class CategoryController {
             summary = "Get all categories",
             description = "Get all categories."
     )
-    @ApiResponse(
-            responseCode = "200",
-            description = "Categories retrieved successfully."
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Categories retrieved successfully."),
+                    @ApiResponse(responseCode = "304", description = "Categories did not change since the ETag in If-None-Match."),
+            }
     )
     public ResponseEntity<CategoryResponse> getAllCategories(
             @RequestParam(value = "pageNo", defaultValue = ApplicationConstants.DEFAULT_CATEGORIES_PAGE_NO, required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = ApplicationConstants.DEFAULT_CATEGORIES_PAGE_SIZE, required = false) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = ApplicationConstants.DEFAULT_CATEGORIES_SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_CATEGORIES_SORT_DIR, required = false) String sortDir
+            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_CATEGORIES_SORT_DIR, required = false) String sortDir,
+            WebRequest webRequest
     ) {
+        EntityVersion version = categoryService.getCategoriesVersion();
+
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         return new ResponseEntity<>(categoryService.getAllCategories(pageNo, pageSize, sortBy, sortDir), HttpStatus.OK);
     }
 
@@ -94,8 +109,9 @@ public class CategoryController {
             description = "Category updated successfully."
     )
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<CategoryDto> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDto categoryDto) {
-        return new ResponseEntity<>(categoryService.updateCategory(id, categoryDto), HttpStatus.OK);
+    public ResponseEntity<CategoryDto> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryDto categoryDto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return new ResponseEntity<>(categoryService.updateCategory(id, categoryDto, AuxiliaryMethods.getInstance().parseIfMatch(ifMatch)), HttpStatus.OK);
     }
 
     @DeleteMapping("/{id}")
@@ -147,12 +163,11 @@ public class CategoryController {
             description = "Delete all categories."
     )
     @ApiResponse(
-            responseCode = "200",
-            description = "All categories deleted successfully."
+            responseCode = "202",
+            description = "Delete job for all categories queued."
     )
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<String> deleteAllCategories() {
-        categoryService.deleteAllCategories();
-        return new ResponseEntity<>("All categories deleted successfully!", HttpStatus.OK);
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllCategories() {
+        return new ResponseEntity<>(categoryService.deleteAllCategories(), HttpStatus.ACCEPTED);
     }
 }
@@ -2,26 +2,40 @@ package io.valentinsoare.bloggingengineapi.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.valentinsoare.bloggingengineapi.dto.CommentDto;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import io.valentinsoare.bloggingengineapi.response.BulkResponse;
 import io.valentinsoare.bloggingengineapi.response.CommentResponse;
+import io.valentinsoare.bloggingengineapi.service.CommentImportService;
 import io.valentinsoare.bloggingengineapi.service.CommentService;
 import io.valentinsoare.bloggingengineapi.utilities.ApplicationConstants;
+import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/comments")
 @Tag(name = "Comments", description = "Endpoints for comments.")
 public class CommentController {
     private final CommentService commentService;
+    private final CommentImportService commentImportService;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, CommentImportService commentImportService) {
         this.commentService = commentService;
+        this.commentImportService = commentImportService;
     }
 
     @PostMapping("/{postId}/posts")
@@ -39,22 +53,65 @@ public class CommentController {
         return new ResponseEntity<>(commentService.createComment(postId, commentDto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/{postId}/posts/async")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
+    @Operation(
+            summary = "Accept a comment for asynchronous write",
+            description = "Validate a comment and queue it for a batched write, available when app.comments.write-behind.enabled is true."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "202", description = "Comment accepted and queued."),
+                    @ApiResponse(responseCode = "404", description = "Post not found."),
+                    @ApiResponse(responseCode = "429", description = "Comment buffer is full, retry later."),
+            }
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Void> acceptComment(@PathVariable Long postId, @Valid @RequestBody CommentDto commentDto) {
+        commentService.acceptComment(postId, commentDto);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
+    @Operation(
+            summary = "Import comments in bulk",
+            description = "Stream a JSON array or newline-delimited JSON comments, each carrying its postId."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Comments imported, failed items are listed in the response."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkResponse> importComments(HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(commentImportService.importComments(request.getInputStream()), HttpStatus.OK);
+    }
+
     @GetMapping("/posts/{postId}")
     @Operation(
             summary = "Get all comments by post id",
             description = "Get all comments for a post."
     )
-    @ApiResponse(
-            responseCode = "200",
-            description = "Comments retrieved successfully."
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully."),
+                    @ApiResponse(responseCode = "304", description = "Comments did not change since the ETag in If-None-Match."),
+            }
     )
     public ResponseEntity<CommentResponse> getAllCommentsByPostId(
             @PathVariable Long postId,
             @RequestParam(value = "pageNo", defaultValue = ApplicationConstants.DEFAULT_COMMENTS_PAGE_NO, required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = ApplicationConstants.DEFAULT_COMMENTS_PAGE_SIZE, required = false) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_DIR, required = false) String sortDir
+            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_DIR, required = false) String sortDir,
+            WebRequest webRequest
     ) {
+        EntityVersion version = commentService.getCommentsVersion(postId);
+
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         return new ResponseEntity<>(commentService.getAllCommentsByPostId(postId, pageNo, pageSize, sortBy, sortDir), HttpStatus.OK);
     }
 
@@ -82,8 +139,9 @@ public class CommentController {
             description = "Comment updated successfully."
     )
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<CommentDto> updateComment(@PathVariable Long postId, @PathVariable Long commentId, @Valid @RequestBody CommentDto commentDto) {
-        return new ResponseEntity<>(commentService.updateCommentByIdAndPostId(commentId, postId, commentDto), HttpStatus.OK);
+    public ResponseEntity<CommentDto> updateComment(@PathVariable Long postId, @PathVariable Long commentId, @Valid @RequestBody CommentDto commentDto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return new ResponseEntity<>(commentService.updateCommentByIdAndPostId(commentId, postId, commentDto, AuxiliaryMethods.getInstance().parseIfMatch(ifMatch)), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN')")
@@ -101,4 +159,49 @@ public class CommentController {
         commentService.deleteCommentByIdAndPostId(commentId, postId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @DeleteMapping("/posts/{postId}")
+    @Operation(
+            summary = "Delete all comments of a post",
+            description = "Queue a background job that deletes all comments of a post in chunks."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Delete job queued."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllCommentsByPostId(@PathVariable Long postId) {
+        return new ResponseEntity<>(commentService.deleteAllCommentsByPostId(postId), HttpStatus.ACCEPTED);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @DeleteMapping("/email/{email}")
+    @Operation(
+            summary = "Delete all comments by email",
+            description = "Queue a background job that deletes all comments written with an email in chunks."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Delete job queued."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllCommentsByEmail(@PathVariable String email) {
+        return new ResponseEntity<>(commentService.deleteAllCommentsByEmail(email), HttpStatus.ACCEPTED);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @DeleteMapping("/name/{name}")
+    @Operation(
+            summary = "Delete all comments by name",
+            description = "Queue a background job that deletes all comments written under a name in chunks."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Delete job queued."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllCommentsByName(@PathVariable String name) {
+        return new ResponseEntity<>(commentService.deleteAllCommentsByName(name), HttpStatus.ACCEPTED);
+    }
 }
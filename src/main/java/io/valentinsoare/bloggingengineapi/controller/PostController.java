@@ -5,24 +5,46 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.dto.PostPatchDto;
+import io.valentinsoare.bloggingengineapi.dto.PostSummaryDto;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import io.valentinsoare.bloggingengineapi.response.BulkResponse;
+import io.valentinsoare.bloggingengineapi.response.FacetResponse;
 import io.valentinsoare.bloggingengineapi.response.PostResponse;
+import io.valentinsoare.bloggingengineapi.response.SearchResponse;
+import io.valentinsoare.bloggingengineapi.response.UpsertResponse;
+import io.valentinsoare.bloggingengineapi.service.PostImportService;
 import io.valentinsoare.bloggingengineapi.service.PostService;
 import io.valentinsoare.bloggingengineapi.utilities.ApplicationConstants;
+import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
 @Tag(name = "Posts", description = "Endpoints for managing posts.")
 public class PostController {
     private final PostService postService;
+    private final PostImportService postImportService;
+    private final AuxiliaryMethods auxiliaryMethods;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostImportService postImportService) {
         this.postService = postService;
+        this.postImportService = postImportService;
+        this.auxiliaryMethods = AuxiliaryMethods.getInstance();
     }
 
     @PostMapping
@@ -42,10 +64,27 @@ public class PostController {
         return new ResponseEntity<>(postService.createPost(postDto), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+            summary = "Import posts in bulk.",
+            description = "It reads a JSON array of posts as a stream and saves them in chunked transactions, reporting the outcome of every item."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned with the per-item outcome of the import."),
+                    @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to import posts."),
+            }
+    )
+    public ResponseEntity<BulkResponse> importPosts(HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(postImportService.importPosts(request.getInputStream()), HttpStatus.OK);
+    }
+
     @GetMapping("/all")
     @Operation(
             summary = "Get all posts.",
-            description = "It allows to get all posts from database."
+            description = "It allows to get all posts from database. Passing the after parameter (empty for the first page) switches to keyset pagination, which follows nextCursor instead of pageNo."
     )
     @ApiResponse(
             responseCode = "200",
@@ -55,8 +94,13 @@ public class PostController {
             @RequestParam(value = "pageNo", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_NO, required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_SIZE, required = false) int pageSize,
             @RequestParam(value = "sortBy", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_BY, required = false) String sortBy,
-            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_DIR, required = false) String sortDir
+            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_DIR, required = false) String sortDir,
+            @RequestParam(value = "after", required = false) String after
     ) {
+        if (after != null) {
+            return new ResponseEntity<>(postService.getAllPostsAfter(after, pageSize, sortBy, sortDir), HttpStatus.OK);
+        }
+
         return new ResponseEntity<>(postService.getAllPosts(pageNo, pageSize, sortBy, sortDir), HttpStatus.OK);
     }
 
@@ -122,12 +166,118 @@ public class PostController {
             summary = "Get post by id.",
             description = "It allows to get post by id from database."
     )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully fetching post by id."),
+                    @ApiResponse(responseCode = "304", description = "HTTP status code 304 (NOT MODIFIED) is returned if the ETag in If-None-Match is still current."),
+            }
+    )
+    public ResponseEntity<PostDto> getPostById(@PathVariable @NotNull Long id, WebRequest webRequest) {
+        EntityVersion version = postService.getPostVersion(id);
+
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
+        PostDto postDto = postService.getPostById(id);
+        postService.recordView(id);
+
+        return new ResponseEntity<>(postDto, HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search posts.",
+            description = "It allows to search post titles, descriptions and contents. Results are ranked by relevance and served from an in-memory index."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned with the matching posts, best match first."),
+                    @ApiResponse(responseCode = "400", description = "HTTP status code 400 (BAD REQUEST) is returned if the query has no searchable words."),
+            }
+    )
+    public ResponseEntity<SearchResponse> searchPosts(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "pageNo", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_NO, required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_SIZE, required = false) int pageSize
+    ) {
+        return new ResponseEntity<>(postService.searchPosts(query, pageNo, pageSize), HttpStatus.OK);
+    }
+
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    @Operation(
+            summary = "Rebuild the search index.",
+            description = "It allows to rebuild the post search index from the database in the background."
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "HTTP status code 202 (ACCEPTED) is returned after the rebuild is started or if one is already running."
+    )
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<String> rebuildSearchIndex() {
+        if (!postService.rebuildSearchIndex()) {
+            return new ResponseEntity<>("Search index rebuild already running.", HttpStatus.ACCEPTED);
+        }
+
+        return new ResponseEntity<>("Search index rebuild started.", HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/facets")
+    @Operation(
+            summary = "Filter posts by categories and authors with facet counts.",
+            description = "It allows to get the posts in any or all of the given categories and authors, minus the excluded ones, " +
+                    "ordered by id, together with the number of matching posts for every category and author. Filtering and counting are served from an in-memory index."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned with the matching posts and the facet counts."),
+                    @ApiResponse(responseCode = "400", description = "HTTP status code 400 (BAD REQUEST) is returned if match is not all or any or the page is invalid."),
+            }
+    )
+    public ResponseEntity<FacetResponse> getPostFacets(
+            @RequestParam(value = "categoryId", required = false) Set<Long> categoryIds,
+            @RequestParam(value = "authorId", required = false) Set<Long> authorIds,
+            @RequestParam(value = "match", defaultValue = "all", required = false) String match,
+            @RequestParam(value = "excludeCategoryId", required = false) Set<Long> excludedCategoryIds,
+            @RequestParam(value = "excludeAuthorId", required = false) Set<Long> excludedAuthorIds,
+            @RequestParam(value = "pageNo", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_NO, required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = ApplicationConstants.DEFAULT_POSTS_PAGE_SIZE, required = false) int pageSize,
+            @RequestParam(value = "sortDir", defaultValue = ApplicationConstants.DEFAULT_POSTS_SORT_DIR, required = false) String sortDir
+    ) {
+        return new ResponseEntity<>(postService.getPostFacets(categoryIds, authorIds, match, excludedCategoryIds, excludedAuthorIds,
+                pageNo, pageSize, sortDir), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/related")
+    @Operation(
+            summary = "Get related posts.",
+            description = "It allows to get the posts sharing the most categories and authors with a post, best match first. " +
+                    "The lists are computed in the background, so a post written in the last few seconds may get an empty or older list."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned with the related posts."),
+                    @ApiResponse(responseCode = "404", description = "HTTP status code 404 (NOT FOUND) is returned if the post does not exist."),
+            }
+    )
+    public ResponseEntity<List<PostSummaryDto>> getRelatedPosts(@PathVariable Long id) {
+        return new ResponseEntity<>(postService.getRelatedPosts(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/most-viewed")
+    @Operation(
+            summary = "Get most viewed posts.",
+            description = "It allows to get the most viewed posts, up to 100. View counts are written in batches, so the latest views show up after the next flush."
+    )
     @ApiResponse(
             responseCode = "200",
-            description = "HTTP status code 200 (OK) is returned after successfully fetching post by id."
+            description = "HTTP status code 200 (OK) is returned after successfully fetching the most viewed posts."
     )
-    public ResponseEntity<PostDto> getPostById(@PathVariable @NotNull Long id) {
-        return new ResponseEntity<>(postService.getPostById(id), HttpStatus.OK);
+    public ResponseEntity<List<PostSummaryDto>> getMostViewedPosts(
+            @RequestParam(value = "limit", defaultValue = ApplicationConstants.DEFAULT_MOST_VIEWED_POSTS_LIMIT, required = false) int limit
+    ) {
+        return new ResponseEntity<>(postService.getMostViewedPosts(limit), HttpStatus.OK);
     }
 
     @GetMapping("/{title}")
@@ -143,6 +293,25 @@ public class PostController {
         return new ResponseEntity<>(postService.getPostByTitle(title), HttpStatus.OK);
     }
 
+    @PutMapping("/upsert")
+    @Operation(
+            summary = "Create or update post by title.",
+            description = "It inserts the post, or updates the post with the same title, in a single statement without reading it first."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "201", description = "HTTP status code 201 (CREATED) is returned if no post with that title existed."),
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully updating the post with that title."),
+                    @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to upsert posts."),
+            }
+    )
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<UpsertResponse> upsertPostByTitle(@Valid @RequestBody PostDto postDto) {
+        UpsertResponse response = postService.upsertPostByTitle(postDto);
+        return new ResponseEntity<>(response, response.isCreated() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update post by id.",
@@ -156,8 +325,27 @@ public class PostController {
     )
     @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<PostDto> updatePost(@PathVariable Long id, @Valid @RequestBody PostDto postDto) {
-        return new ResponseEntity<>(postService.updatePost(id, postDto), HttpStatus.OK);
+    public ResponseEntity<PostDto> updatePost(@PathVariable Long id, @Valid @RequestBody PostDto postDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return new ResponseEntity<>(postService.updatePost(id, postDto, auxiliaryMethods.parseIfMatch(ifMatch)), HttpStatus.OK);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(
+            summary = "Partially update post by id.",
+            description = "It changes only the fields present in the request, categories and authors are diffed against the stored ones."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully patching post by id."),
+                    @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to patch post by id."),
+            }
+    )
+    @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<PostDto> patchPost(@PathVariable Long id, @Valid @RequestBody PostPatchDto postPatchDto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return new ResponseEntity<>(postService.patchPost(id, postPatchDto, auxiliaryMethods.parseIfMatch(ifMatch)), HttpStatus.OK);
     }
 
     @PutMapping("/{title}")
@@ -173,8 +361,9 @@ public class PostController {
     )
     @PreAuthorize("hasAnyRole('ADMIN', 'MAINTAINER')")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<PostDto> updatePostByTitle(@PathVariable @NotNull String title, @Valid @RequestBody PostDto postDto) {
-        return new ResponseEntity<>(postService.updatePostByTitle(title, postDto), HttpStatus.OK);
+    public ResponseEntity<PostDto> updatePostByTitle(@PathVariable @NotNull String title, @Valid @RequestBody PostDto postDto,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return new ResponseEntity<>(postService.updatePostByTitle(title, postDto, auxiliaryMethods.parseIfMatch(ifMatch)), HttpStatus.OK);
     }
 
     @DeleteMapping("/id/{id}")
@@ -228,15 +417,14 @@ public class PostController {
     )
     @ApiResponses(
             value = {
-                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully deleting all posts."),
+                    @ApiResponse(responseCode = "202", description = "HTTP status code 202 (ACCEPTED) is returned after the delete job for all posts is queued."),
                     @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to delete all posts."),
             }
     )
     @PreAuthorize("hasAnyRole('ADMIN')")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<String> deleteAllPosts() {
-        postService.deleteAllPosts();
-        return new ResponseEntity<>("All Posts deleted successfully!", HttpStatus.OK);
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllPosts() {
+        return new ResponseEntity<>(postService.deleteAllPosts(), HttpStatus.ACCEPTED);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN')")
@@ -246,15 +434,14 @@ public class PostController {
     )
     @ApiResponses(
             value = {
-                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully deleting all posts by author id."),
+                    @ApiResponse(responseCode = "202", description = "HTTP status code 202 (ACCEPTED) is returned after the delete job for the author's posts is queued."),
                     @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to delete all posts by author id."),
             }
     )
     @DeleteMapping("/author/{authorId}")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<String> deleteAllPostsByAuthorId(@PathVariable Long authorId) {
-        postService.deleteAllPostsByAuthorId(authorId);
-        return new ResponseEntity<>(String.format("All Posts with author id: %s deleted successfully!", authorId), HttpStatus.OK);
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllPostsByAuthorId(@PathVariable Long authorId) {
+        return new ResponseEntity<>(postService.deleteAllPostsByAuthorId(authorId), HttpStatus.ACCEPTED);
     }
 
     @GetMapping("/category/{categoryName}")
@@ -315,15 +502,14 @@ public class PostController {
     )
     @ApiResponses(
             value = {
-                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully deleting all posts by category id."),
+                    @ApiResponse(responseCode = "202", description = "HTTP status code 202 (ACCEPTED) is returned after the delete job for the category's posts is queued."),
                     @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to delete all posts by category id."),
             }
     )
     @DeleteMapping("/category/{categoryId}")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<String> deleteAllPostsByCategoryId(@PathVariable Long categoryId) {
-        postService.deleteAllPostsByCategoryId(categoryId);
-        return new ResponseEntity<>(String.format("All Posts with category id: %s deleted successfully!", categoryId), HttpStatus.OK);
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllPostsByCategoryId(@PathVariable Long categoryId) {
+        return new ResponseEntity<>(postService.deleteAllPostsByCategoryId(categoryId), HttpStatus.ACCEPTED);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN')")
@@ -333,15 +519,14 @@ public class PostController {
     )
     @ApiResponses(
             value = {
-                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned after successfully deleting all posts by category name."),
+                    @ApiResponse(responseCode = "202", description = "HTTP status code 202 (ACCEPTED) is returned after the delete job for the category's posts is queued."),
                     @ApiResponse(responseCode = "401", description = "HTTP status code 401 (UNAUTHORIZED) is returned if the user is not authorized to delete all posts by category name."),
             }
     )
     @DeleteMapping("/category/{categoryName}")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<String> deleteAllPostsByCategoryName(@PathVariable @NotNull String categoryName) {
-        postService.deleteAllPostsByCategoryName(categoryName);
-        return new ResponseEntity<>(String.format("All Posts with category name: %s deleted successfully!", categoryName), HttpStatus.OK);
+    public ResponseEntity<BulkDeleteJobResponse> deleteAllPostsByCategoryName(@PathVariable @NotNull String categoryName) {
+        return new ResponseEntity<>(postService.deleteAllPostsByCategoryName(categoryName), HttpStatus.ACCEPTED);
     }
 
     @GetMapping("/author/{email}/category/{categoryName}")
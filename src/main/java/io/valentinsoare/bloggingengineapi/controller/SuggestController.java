@@ -0,0 +1,46 @@
+package io.valentinsoare.bloggingengineapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.valentinsoare.bloggingengineapi.dto.SuggestionDto;
+import io.valentinsoare.bloggingengineapi.service.SuggestService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+@Tag(name = "Suggestions", description = "Type-ahead suggestions for post titles, category names and author names.")
+public class SuggestController {
+    private final SuggestService suggestService;
+
+    public SuggestController(SuggestService suggestService) {
+        this.suggestService = suggestService;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Suggest by prefix.",
+            description = "It allows to get the most popular post titles, category names or author names starting with a prefix, answered from memory."
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "HTTP status code 200 (OK) is returned with the suggestions, most popular first."),
+                    @ApiResponse(responseCode = "400", description = "HTTP status code 400 (BAD REQUEST) is returned if the type is not post, category or author."),
+            }
+    )
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam(value = "prefix") String prefix,
+            @RequestParam(value = "type", defaultValue = "post", required = false) String type,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit
+    ) {
+        return new ResponseEntity<>(suggestService.suggest(prefix, type, limit), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,115 @@
+package io.valentinsoare.bloggingengineapi.counter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Repairs post.comment_count drift by recounting the comments of app.comments.count-reconciliation.batch-size
+ * posts per transaction. The posts are locked before their comments are counted, so a comment write racing
+ * the recount waits for it and applies its increment on top of the repaired value.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.comments.count-reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class CommentCountReconciler {
+    private static final String REPAIR_COMMENT_COUNT = "UPDATE post SET comment_count = ?, " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP(6) WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final PostCache postCache;
+    private final int batchSize;
+    private final Counter repaired;
+
+    public CommentCountReconciler(NamedParameterJdbcTemplate jdbc,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  PostCache postCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.comments.count-reconciliation.batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.postCache = postCache;
+        this.batchSize = batchSize;
+        this.repaired = Counter.builder("bloggingengine.posts.comment-count.repaired")
+                .description("Posts whose comment_count was corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.comments.count-reconciliation.initial-delay-ms:60000}",
+            fixedDelayString = "${app.comments.count-reconciliation.interval-ms:3600000}")
+    public void reconcile() {
+        long afterId = 0;
+        int repairedPosts = 0;
+
+        while (true) {
+            long from = afterId;
+            Batch batch = batchTransaction.execute(status -> reconcileBatch(from));
+
+            if (batch == null || batch.lastId() == null) {
+                break;
+            }
+
+            batch.repairedIds().forEach(postCache::evict);
+            repairedPosts += batch.repairedIds().size();
+            afterId = batch.lastId();
+        }
+
+        if (repairedPosts > 0) {
+            repaired.increment(repairedPosts);
+            log.warn("Comment count reconciliation repaired {} posts.", repairedPosts);
+        }
+    }
+
+    private Batch reconcileBatch(long afterId) {
+        Map<Long, Long> stored = new LinkedHashMap<>();
+
+        jdbc.query("SELECT id, comment_count FROM post WHERE id > :afterId ORDER BY id LIMIT :batchSize FOR UPDATE",
+                Map.of("afterId", afterId, "batchSize", batchSize),
+                rs -> { stored.put(rs.getLong("id"), rs.getLong("comment_count")); });
+
+        if (stored.isEmpty()) {
+            return new Batch(null, List.of());
+        }
+
+        Map<Long, Long> counted = new HashMap<>();
+
+        jdbc.query("SELECT post_id, COUNT(*) AS comments FROM comment WHERE post_id IN (:ids) GROUP BY post_id",
+                Map.of("ids", stored.keySet()),
+                rs -> { counted.put(rs.getLong("post_id"), rs.getLong("comments")); });
+
+        List<Object[]> repairs = new ArrayList<>();
+        List<Long> repairedIds = new ArrayList<>();
+
+        stored.forEach((postId, commentCount) -> {
+            long actual = counted.getOrDefault(postId, 0L);
+
+            if (actual != commentCount) {
+                repairs.add(new Object[]{actual, postId});
+                repairedIds.add(postId);
+            }
+        });
+
+        if (!repairs.isEmpty()) {
+            jdbcTemplate.batchUpdate(REPAIR_COMMENT_COUNT, repairs);
+        }
+
+        return new Batch(List.copyOf(stored.keySet()).getLast(), repairedIds);
+    }
+
+    private record Batch(Long lastId, List<Long> repairedIds) {}
+}
@@ -0,0 +1,97 @@
+package io.valentinsoare.bloggingengineapi.counter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, insert-only open-addressing map from positive long keys to LongAdders.
+ * Keys are claimed with a CAS on a primitive slot, so looking up an existing key neither
+ * locks nor allocates; only the first hit on a key allocates its adder.
+ */
+class LongAdderTable {
+    private static final long EMPTY = 0L;
+    private static final int MAX_PROBES = 16;
+
+    interface CountConsumer {
+        void accept(long key, long count);
+    }
+
+    private final AtomicLongArray keys;
+    private final AtomicReferenceArray<LongAdder> adders;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int mask;
+
+    LongAdderTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        this.keys = new AtomicLongArray(size);
+        this.adders = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the adder for the key, or null if no free slot was found within MAX_PROBES
+     */
+    LongAdder adderFor(long key) {
+        int slot = spread(key) & mask;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            long current = keys.get(slot);
+
+            if (current == EMPTY && keys.compareAndSet(slot, EMPTY, key)) {
+                current = key;
+                size.incrementAndGet();
+            } else if (current == EMPTY) {
+                current = keys.get(slot);
+            }
+
+            if (current == key) {
+                LongAdder adder = adders.get(slot);
+
+                if (adder == null) {
+                    adders.compareAndSet(slot, null, new LongAdder());
+                    adder = adders.get(slot);
+                }
+
+                return adder;
+            }
+        }
+
+        return null;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Hands every non-zero key and its count since the last drain to the consumer, resetting the adders.
+     */
+    void drain(CountConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keys.get(slot);
+            LongAdder adder = adders.get(slot);
+
+            if (key == EMPTY || adder == null) {
+                continue;
+            }
+
+            long count = adder.sumThenReset();
+
+            if (count != 0) {
+                consumer.accept(key, count);
+            }
+        }
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
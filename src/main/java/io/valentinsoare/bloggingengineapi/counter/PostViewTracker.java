@@ -0,0 +1,127 @@
+package io.valentinsoare.bloggingengineapi.counter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.valentinsoare.bloggingengineapi.repository.PostJdbcRepository;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts post views in memory and adds them to post.view_count once per app.posts.views.flush-interval-ms.
+ * Views go to one long-lived table that every flush drains in place. Once more than half of its slots are
+ * taken it is replaced by one twice its size, and the old table is drained once more on the next flush,
+ * which picks up increments from threads that read the table reference just before the swap. A view that
+ * finds no free slot is written to the database right away.
+ */
+@Slf4j
+@Component
+public class PostViewTracker {
+    private final PostJdbcRepository postJdbcRepository;
+    private final SuggestIndex suggestIndex;
+    private final TransactionTemplate flushTransaction;
+
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+    private final Counter overflowedViews;
+
+    private volatile LongAdderTable table;
+
+    // only touched by flush, which is synchronized
+    private LongAdderTable retired;
+    private final SortedMap<Long, Long> unflushed = new TreeMap<>();
+
+    public PostViewTracker(PostJdbcRepository postJdbcRepository,
+                           SuggestIndex suggestIndex,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.posts.views.table-capacity:65536}") int tableCapacity) {
+        this.postJdbcRepository = postJdbcRepository;
+        this.suggestIndex = suggestIndex;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.table = new LongAdderTable(tableCapacity);
+
+        this.flushTimer = Timer.builder("bloggingengine.posts.views.flush")
+                .description("Time spent writing aggregated post views")
+                .register(meterRegistry);
+
+        this.flushedViews = Counter.builder("bloggingengine.posts.views.flushed")
+                .description("Post views written to the database")
+                .register(meterRegistry);
+
+        this.overflowedViews = Counter.builder("bloggingengine.posts.views.overflowed")
+                .description("Post views written to the database right away because the table had no free slot")
+                .register(meterRegistry);
+    }
+
+    public void recordView(long postId) {
+        LongAdder adder = table.adderFor(postId);
+
+        if (adder != null) {
+            adder.increment();
+            return;
+        }
+
+        overflowedViews.increment();
+
+        SortedMap<Long, Long> view = new TreeMap<>(Map.of(postId, 1L));
+
+        try {
+            flushTransaction.executeWithoutResult(status -> postJdbcRepository.addToViewCounts(view));
+            suggestIndex.addPostViews(view);
+        } catch (Exception e) {
+            log.error("Writing a view of post {} failed: {}", postId, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.posts.views.flush-interval-ms:5000}",
+            fixedDelayString = "${app.posts.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        LongAdderTable.CountConsumer collect = (postId, views) -> unflushed.merge(postId, views, Long::sum);
+
+        if (retired != null) {
+            retired.drain(collect);
+            retired = null;
+        }
+
+        LongAdderTable current = table;
+        current.drain(collect);
+
+        // grown before probes get long enough to run out of slots
+        if (current.size() > current.capacity() / 2) {
+            table = new LongAdderTable(current.capacity() * 2);
+            retired = current;
+            log.info("Post view table grown to {} slots.", current.capacity() * 2);
+        }
+
+        if (unflushed.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> flushTransaction.executeWithoutResult(status -> postJdbcRepository.addToViewCounts(unflushed)));
+            flushedViews.increment(unflushed.values().stream().mapToLong(Long::longValue).sum());
+            suggestIndex.addPostViews(unflushed);
+            unflushed.clear();
+        } catch (Exception e) {
+            log.error("Flushing views of {} posts failed, keeping them for the next flush: {}", unflushed.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        flush();
+    }
+}
@@ -30,6 +30,9 @@ public class CategoryDto {
 
     private Set<PostDto> allPostsWithCategory = Collections.emptySet();
 
+    @Schema(description = "Version of the category, for If-Match", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
+
     @Override
     public String toString() {
         return "CategoryDto: [" +
@@ -36,6 +36,9 @@ public class CommentDto {
     @Schema(description = "Id of the post", example = "1")
     private long postId;
 
+    @Schema(description = "Version of the comment, for If-Match", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
+
     @Override
     public String toString() {
         return "CommentDto: [" +
@@ -0,0 +1,30 @@
+package io.valentinsoare.bloggingengineapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for the number of matching posts in a category or by an author")
+public class FacetCountDto {
+    @Schema(description = "ID of the category or author", example = "1")
+    private long id;
+
+    @Schema(description = "Category name or author full name", example = "Category name")
+    private String name;
+
+    @Schema(description = "Number of matching posts", example = "7")
+    private long count;
+
+    @Override
+    public String toString() {
+        return "FacetCountDto: [" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", count=" + count +
+                ']';
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Set;
 
@@ -41,6 +42,15 @@ public class PostDto {
     @Size(min = 1, max = 5, message = "We need at least one category and maximum is five!")
     private Set<CategoryDto> categories = Collections.emptySet();
 
+    @Schema(description = "Number of comments on the post", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private long commentCount;
+
+    @Schema(description = "Version of the post, also sent as its ETag", example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
+
+    @Schema(description = "Time of the last change to the post or its comments", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant lastModified;
+
     @Override
     public String toString() {
         return "PostDto: [" +
@@ -0,0 +1,48 @@
+package io.valentinsoare.bloggingengineapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for a Post on a list page, without content and comments")
+public class PostSummaryDto {
+    @Schema(description = "ID of the post", example = "1")
+    private long id;
+
+    @Schema(description = "Title of the post", example = "Post title")
+    private String title;
+
+    @Schema(description = "Description of the post", example = "Post description")
+    private String description;
+
+    @Schema(description = "Number of comments on the post", example = "12")
+    private long commentCount;
+
+    @Schema(description = "Number of views of the post, flushed periodically", example = "340")
+    private long viewCount;
+
+    @Schema(description = "Full names of the post authors", example = "[\"John Doe\"]")
+    private List<String> authorNames;
+
+    @Schema(description = "Names of the post categories", example = "[\"Category name\"]")
+    private List<String> categoryNames;
+
+    @Override
+    public String toString() {
+        return "PostSummaryDto: [" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", description='" + description + '\'' +
+                ", commentCount=" + commentCount +
+                ", viewCount=" + viewCount +
+                ", authorNames=" + authorNames +
+                ", categoryNames=" + categoryNames +
+                ']';
+    }
+}
@@ -0,0 +1,33 @@
+package io.valentinsoare.bloggingengineapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for a post matching a search")
+public class SearchHitDto {
+    @Schema(description = "ID of the post", example = "1")
+    private long id;
+
+    @Schema(description = "Title of the post", example = "Post title")
+    private String title;
+
+    @Schema(description = "BM25 relevance score", example = "7.31")
+    private double score;
+
+    @Schema(description = "Part of the post text around the first match", example = "...a post about search engines...")
+    private String snippet;
+
+    @Override
+    public String toString() {
+        return "SearchHitDto: [" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", score=" + score +
+                ']';
+    }
+}
@@ -0,0 +1,34 @@
+package io.valentinsoare.bloggingengineapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for a type-ahead suggestion")
+public class SuggestionDto {
+    @Schema(description = "Kind of the suggested resource", example = "POST")
+    private String type;
+
+    @Schema(description = "ID of the suggested resource", example = "1")
+    private long id;
+
+    @Schema(description = "Post title, category name or author full name", example = "Post title")
+    private String text;
+
+    @Schema(description = "Popularity used for ranking: views for posts, number of posts for categories and authors", example = "120")
+    private long weight;
+
+    @Override
+    public String toString() {
+        return "SuggestionDto: [" +
+                "type=" + type +
+                ", id=" + id +
+                ", text='" + text + '\'' +
+                ", weight=" + weight +
+                ']';
+    }
+}
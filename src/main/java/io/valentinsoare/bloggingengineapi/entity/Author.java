@@ -5,7 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -15,7 +19,10 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "author")
-@Table(name = "author", schema = "news_outlet_db")
+@Table(name = "author", schema = "news_outlet_db", indexes = {
+        @Index(name = "idx_author_last_name", columnList = "last_name"),
+        @Index(name = "idx_author_first_name", columnList = "first_name")
+})
 @NamedEntityGraph(
         name = "author-with-posts",
         attributeNodes = @NamedAttributeNode("allPosts")
@@ -35,6 +42,17 @@ public class Author implements Comparable<Author> {
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @BatchSize(size = 50)
     @ManyToMany(mappedBy = "authors")
     private Set<Post> allPosts = new HashSet<>();
 
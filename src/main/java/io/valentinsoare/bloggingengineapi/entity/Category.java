@@ -2,7 +2,11 @@ package io.valentinsoare.bloggingengineapi.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -29,6 +33,17 @@ public class Category implements Comparable<Category> {
     @Column(name = "description", nullable = false)
     private String description;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @BatchSize(size = 50)
     @ManyToMany(mappedBy = "categories")
     private Set<Post> posts = new HashSet<>();
 
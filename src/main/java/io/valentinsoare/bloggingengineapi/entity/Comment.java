@@ -5,9 +5,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -39,6 +42,16 @@ public class Comment implements Comparable<Comment> {
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Comment setId(@NotNull  Long id) {
         this.id = id;
         return this;
@@ -69,6 +82,11 @@ public class Comment implements Comparable<Comment> {
         if (o == null || getClass() != o.getClass()) return false;
 
         Comment comment = (Comment) o;
+
+        if (id != null && comment.id != null) {
+            return id.equals(comment.id);
+        }
+
         return Objects.equals(body, comment.body) &&
                 Objects.equals(email, comment.email)
                 && Objects.equals(post, comment.post);
@@ -78,7 +96,7 @@ public class Comment implements Comparable<Comment> {
     public int hashCode() {
         int hash = 7;
 
-        hash = 31 * hash + (body == null ? 0 : body.hashCode());
+        // the lazy body is left out so a page of comments can be put in a set without loading every body
         hash = 31 * hash + (email == null ? 0 : email.hashCode());
         hash = 31 * hash + (post == null ? 0 : post.hashCode());
 
@@ -5,17 +5,25 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
 import java.util.*;
 
 @Getter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
 @Entity(name = "post")
-@Table(name = "post", schema = "news_outlet_db")
+@Table(name = "post", schema = "news_outlet_db", indexes = {
+        @Index(name = "idx_post_view_count", columnList = "view_count")
+})
 @NamedEntityGraph(
         name = "post-with-authors-categories-comments",
         attributeNodes = {
@@ -36,19 +44,23 @@ public class Post implements Comparable<Post> {
     @Column(name = "description", nullable = false)
     private String description;
 
+    @BatchSize(size = 50)
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH, CascadeType.DETACH})
     @JoinTable(
             name = "post_category",
             joinColumns = @JoinColumn(name = "post_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn(name = "category_id", referencedColumnName = "id")
+            inverseJoinColumns = @JoinColumn(name = "category_id", referencedColumnName = "id"),
+            indexes = @Index(name = "idx_post_category_category_post", columnList = "category_id, post_id")
     )
     private Set<Category> categories = new HashSet<>();
 
+    @BatchSize(size = 50)
     @ManyToMany(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(
             name = "post_author",
             joinColumns = @JoinColumn(name = "post_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn(name = "author_id", referencedColumnName = "id")
+            inverseJoinColumns = @JoinColumn(name = "author_id", referencedColumnName = "id"),
+            indexes = @Index(name = "idx_post_author_author_post", columnList = "author_id, post_id")
     )
     private Set<Author> authors = new HashSet<>();
 
@@ -57,6 +69,27 @@ public class Post implements Comparable<Post> {
     @Column(name = "content", nullable = false)
     private String content;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // only changed by the atomic increments in PostRepository and the JDBC repositories, never by the entity
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
+    // only changed by PostViewTracker flushes
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
+    @BatchSize(size = 50)
     @OneToMany(mappedBy = "post", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Comment> comments = new HashSet<>();
 
@@ -130,8 +163,9 @@ public class Post implements Comparable<Post> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        // title is unique, and the lazy content must not be loaded just to put a post in a set
         Post post = (Post) o;
-        return Objects.equals(title, post.title) && Objects.equals(content, post.content);
+        return Objects.equals(title, post.title);
     }
 
     @Override
@@ -139,7 +173,6 @@ public class Post implements Comparable<Post> {
         int hash = 11;
 
         hash = 31 * hash + (title == null ? 0 : title.hashCode());
-        hash = 31 * hash + (content == null ? 0 : content.hashCode());
 
         return hash;
     }
@@ -0,0 +1,38 @@
+package io.valentinsoare.bloggingengineapi.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One row per table whose listing is served with conditional requests, bumped in the same transaction
+ * as every insert, update and delete on that table.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "table_version")
+@Table(name = "table_version", schema = "news_outlet_db")
+public class TableVersion {
+    public static final String CATEGORY = "category";
+
+    @Id
+    @Column(name = "table_name", nullable = false, length = 64)
+    private String tableName;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Override
+    public String toString() {
+        return "TableVersion [" +
+                "tableName='" + tableName + '\'' +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
+                ']';
+    }
+}
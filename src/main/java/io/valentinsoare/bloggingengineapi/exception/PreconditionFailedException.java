@@ -0,0 +1,13 @@
+package io.valentinsoare.bloggingengineapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PreconditionFailedException extends RuntimeException {
+    private final String msg;
+
+    public PreconditionFailedException(String msg) {
+        super(String.format("Precondition Failed: %s", msg));
+        this.msg = msg;
+    }
+}
@@ -0,0 +1,13 @@
+package io.valentinsoare.bloggingengineapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final String msg;
+
+    public TooManyRequestsException(String msg) {
+        super(String.format("Too Many Requests: %s", msg));
+        this.msg = msg;
+    }
+}
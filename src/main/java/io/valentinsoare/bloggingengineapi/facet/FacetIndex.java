@@ -0,0 +1,227 @@
+package io.valentinsoare.bloggingengineapi.facet;
+
+import io.valentinsoare.bloggingengineapi.dto.FacetCountDto;
+import io.valentinsoare.bloggingengineapi.utilities.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-memory bitmaps of the posts in every category and by every author, used to filter posts on any
+ * combination of categories and authors and to count the matches per category and author without MySQL.
+ * Filled from the database on startup and kept current by the write paths after commit; changes made
+ * while a rebuild is running are replayed on the rebuilt state before it replaces the live one.
+ */
+@Slf4j
+@Component
+public class FacetIndex {
+    /**
+     * Posts in any (matchAll false) or all (matchAll true) of the listed categories and authors, minus
+     * the posts in any of the excluded ones. No included ids means every post.
+     */
+    public record Filter(Set<Long> categoryIds, Set<Long> authorIds, boolean matchAll,
+                         Set<Long> excludedCategoryIds, Set<Long> excludedAuthorIds) {}
+
+    public record Matches(long totalMatches, long[] postIds, List<FacetCountDto> categories, List<FacetCountDto> authors) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<Long> changedPosts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "facet-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile FacetState state = new FacetState();
+    private volatile boolean complete;
+
+    // non-null while a rebuild runs, guarded by this
+    private List<Consumer<FacetState>> replayLog;
+
+    public FacetIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void putPost(long postId, Collection<Long> categoryIds, Collection<Long> authorIds) {
+        List<Long> categories = List.copyOf(categoryIds);
+        List<Long> authors = List.copyOf(authorIds);
+        TransactionHooks.afterCommit(() -> {
+            apply(target -> target.putPost(postId, categories, authors));
+            changedPosts.add(postId);
+        });
+    }
+
+    public void removePosts(Collection<Long> postIds) {
+        List<Long> removed = List.copyOf(postIds);
+        TransactionHooks.afterCommit(() -> {
+            apply(target -> removed.forEach(target::removePost));
+            changedPosts.addAll(removed);
+        });
+    }
+
+    public void putCategory(long categoryId, String name) {
+        TransactionHooks.afterCommit(() -> apply(target -> target.putCategory(categoryId, name)));
+    }
+
+    public void removeCategories(Collection<Long> categoryIds) {
+        List<Long> removed = List.copyOf(categoryIds);
+        TransactionHooks.afterCommit(() -> apply(target -> removed.forEach(target::removeCategory)));
+    }
+
+    public void putAuthor(long authorId, String firstName, String lastName) {
+        TransactionHooks.afterCommit(() -> apply(target -> target.putAuthor(authorId, firstName + " " + lastName)));
+    }
+
+    public void removeAuthors(Collection<Long> authorIds) {
+        List<Long> removed = List.copyOf(authorIds);
+        TransactionHooks.afterCommit(() -> apply(target -> removed.forEach(target::removeAuthor)));
+    }
+
+    private synchronized void apply(Consumer<FacetState> change) {
+        change.accept(state);
+
+        if (replayLog != null) {
+            replayLog.add(change);
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public OptionalLong countPostsInCategory(long categoryId) {
+        return complete ? OptionalLong.of(state.countInCategory(categoryId)) : OptionalLong.empty();
+    }
+
+    public long[] allPostIds() {
+        return state.postIds();
+    }
+
+    /**
+     * Posts ranked by weighted overlap of categories and authors with the given one, empty for an
+     * unknown post.
+     */
+    public Optional<long[]> related(long postId, int limit, int maxCandidatesPerFacet, int categoryWeight, int authorWeight) {
+        return Optional.ofNullable(state.related(postId, limit, maxCandidatesPerFacet, categoryWeight, authorWeight));
+    }
+
+    public int overlap(long postId, long otherPostId, int categoryWeight, int authorWeight) {
+        return state.overlap(postId, otherPostId, categoryWeight, authorWeight);
+    }
+
+    public long[] postsSharingFacet(long postId) {
+        return state.postsSharingFacet(postId);
+    }
+
+    public long postCount() {
+        return state.postCount();
+    }
+
+    /**
+     * Ids of the posts written or removed since the last call.
+     */
+    public Set<Long> drainChangedPosts() {
+        Set<Long> drained = new HashSet<>();
+
+        for (Iterator<Long> iterator = changedPosts.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+
+        return drained;
+    }
+
+    public Matches query(Filter filter, long offset, int limit, boolean descending) {
+        FacetState.Result result = state.query(filter, offset, limit, descending);
+
+        return new Matches(result.totalMatches(), result.postIds(), toDto(result.categories()), toDto(result.authors()));
+    }
+
+    private static List<FacetCountDto> toDto(List<FacetState.Count> counts) {
+        return counts.stream()
+                .map(count -> FacetCountDto.builder()
+                        .id(count.id())
+                        .name(count.name())
+                        .count(count.count())
+                        .build())
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+
+        synchronized (this) {
+            replayLog = new ArrayList<>();
+        }
+
+        rebuilder.execute(this::runRebuild);
+        return true;
+    }
+
+    private void runRebuild() {
+        FacetState rebuilt = new FacetState();
+        long started = System.currentTimeMillis();
+
+        try {
+            jdbcTemplate.query("SELECT id FROM post", rs -> {
+                rebuilt.addPost(rs.getLong("id"));
+            });
+
+            jdbcTemplate.query("SELECT post_id, category_id FROM post_category", rs -> {
+                rebuilt.linkCategory(rs.getLong("post_id"), rs.getLong("category_id"));
+            });
+
+            jdbcTemplate.query("SELECT post_id, author_id FROM post_author", rs -> {
+                rebuilt.linkAuthor(rs.getLong("post_id"), rs.getLong("author_id"));
+            });
+
+            jdbcTemplate.query("SELECT id, name FROM category", rs -> {
+                rebuilt.putCategory(rs.getLong("id"), rs.getString("name"));
+            });
+
+            jdbcTemplate.query("SELECT id, first_name, last_name FROM author", rs -> {
+                rebuilt.putAuthor(rs.getLong("id"), rs.getString("first_name") + " " + rs.getString("last_name"));
+            });
+
+            synchronized (this) {
+                replayLog.forEach(change -> change.accept(rebuilt));
+                replayLog = null;
+                state = rebuilt;
+                complete = true;
+            }
+
+            log.info("Facet index rebuilt in {} ms.", System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            synchronized (this) {
+                replayLog = null;
+            }
+
+            log.error("Facet index rebuild failed, keeping the current index: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
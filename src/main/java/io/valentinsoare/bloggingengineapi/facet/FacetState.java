@@ -0,0 +1,336 @@
+package io.valentinsoare.bloggingengineapi.facet;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap of post ids per category and per author, plus the reverse links needed to move a post
+ * when its categories or authors change. Names are kept so facet counts can be labelled without MySQL.
+ */
+final class FacetState {
+    private static final CompressedBitmap EMPTY = new CompressedBitmap();
+    private static final long[] NO_IDS = new long[0];
+
+    record Count(long id, String name, long count) {}
+
+    record Result(long totalMatches, long[] postIds, List<Count> categories, List<Count> authors) {}
+
+    private final CompressedBitmap posts = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> postsByCategory = new HashMap<>();
+    private final Map<Long, CompressedBitmap> postsByAuthor = new HashMap<>();
+    private final Map<Long, long[]> categoriesByPost = new HashMap<>();
+    private final Map<Long, long[]> authorsByPost = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Long, String> authorNames = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static void link(Map<Long, CompressedBitmap> bitmaps, Map<Long, long[]> links, long postId, long targetId) {
+        bitmaps.computeIfAbsent(targetId, id -> new CompressedBitmap()).add(postId);
+        links.merge(postId, new long[]{targetId}, (current, added) -> {
+            long[] merged = Arrays.copyOf(current, current.length + 1);
+            merged[current.length] = added[0];
+            return merged;
+        });
+    }
+
+    private static void unlink(Map<Long, CompressedBitmap> bitmaps, Map<Long, long[]> links, long postId) {
+        long[] targetIds = links.remove(postId);
+
+        if (targetIds == null) {
+            return;
+        }
+
+        for (long targetId : targetIds) {
+            CompressedBitmap bitmap = bitmaps.get(targetId);
+
+            if (bitmap != null) {
+                bitmap.remove(postId);
+            }
+        }
+    }
+
+    void putPost(long postId, Collection<Long> categoryIds, Collection<Long> authorIds) {
+        lock.writeLock().lock();
+
+        try {
+            unlink(postsByCategory, categoriesByPost, postId);
+            unlink(postsByAuthor, authorsByPost, postId);
+            posts.add(postId);
+            categoryIds.forEach(categoryId -> link(postsByCategory, categoriesByPost, postId, categoryId));
+            authorIds.forEach(authorId -> link(postsByAuthor, authorsByPost, postId, authorId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void addPost(long postId) {
+        lock.writeLock().lock();
+
+        try {
+            posts.add(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void linkCategory(long postId, long categoryId) {
+        lock.writeLock().lock();
+
+        try {
+            link(postsByCategory, categoriesByPost, postId, categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void linkAuthor(long postId, long authorId) {
+        lock.writeLock().lock();
+
+        try {
+            link(postsByAuthor, authorsByPost, postId, authorId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removePost(long postId) {
+        lock.writeLock().lock();
+
+        try {
+            unlink(postsByCategory, categoriesByPost, postId);
+            unlink(postsByAuthor, authorsByPost, postId);
+            posts.remove(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putCategory(long categoryId, String name) {
+        lock.writeLock().lock();
+
+        try {
+            categoryNames.put(categoryId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // reverse links to a removed category or author are left behind, unlink skips ids without a bitmap
+    void removeCategory(long categoryId) {
+        lock.writeLock().lock();
+
+        try {
+            categoryNames.remove(categoryId);
+            postsByCategory.remove(categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putAuthor(long authorId, String name) {
+        lock.writeLock().lock();
+
+        try {
+            authorNames.put(authorId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAuthor(long authorId) {
+        lock.writeLock().lock();
+
+        try {
+            authorNames.remove(authorId);
+            postsByAuthor.remove(authorId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long countInCategory(long categoryId) {
+        lock.readLock().lock();
+
+        try {
+            return postsByCategory.getOrDefault(categoryId, EMPTY).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long[] postIds() {
+        lock.readLock().lock();
+
+        try {
+            return posts.page(0, Integer.MAX_VALUE, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long postCount() {
+        lock.readLock().lock();
+
+        try {
+            return posts.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posts sharing the most categories and authors with the given one, each shared category scoring
+     * categoryWeight and each shared author authorWeight, newest first on equal scores. Only the newest
+     * maxCandidatesPerFacet posts of each category and author are scored. Null for an unknown post.
+     */
+    long[] related(long postId, int limit, int maxCandidatesPerFacet, int categoryWeight, int authorWeight) {
+        lock.readLock().lock();
+
+        try {
+            if (!posts.contains(postId)) {
+                return null;
+            }
+
+            LongIntMap scores = new LongIntMap(256);
+
+            score(scores, postsByCategory, categoriesByPost.get(postId), categoryWeight, maxCandidatesPerFacet);
+            score(scores, postsByAuthor, authorsByPost.get(postId), authorWeight, maxCandidatesPerFacet);
+
+            return scores.top(limit, postId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void score(LongIntMap scores, Map<Long, CompressedBitmap> bitmaps, long[] targetIds,
+                              int weight, int maxCandidates) {
+        if (targetIds == null) {
+            return;
+        }
+
+        for (long targetId : targetIds) {
+            CompressedBitmap bitmap = bitmaps.get(targetId);
+
+            if (bitmap == null) {
+                continue;
+            }
+
+            if (bitmap.cardinality() <= maxCandidates) {
+                bitmap.forEach(postId -> scores.add(postId, weight));
+            } else {
+                for (long postId : bitmap.page(0, maxCandidates, true)) {
+                    scores.add(postId, weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Weighted count of the categories and authors two posts have in common.
+     */
+    int overlap(long postId, long otherPostId, int categoryWeight, int authorWeight) {
+        lock.readLock().lock();
+
+        try {
+            return categoryWeight * common(categoriesByPost.get(postId), categoriesByPost.get(otherPostId))
+                    + authorWeight * common(authorsByPost.get(postId), authorsByPost.get(otherPostId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int common(long[] targetIds, long[] otherTargetIds) {
+        if (targetIds == null || otherTargetIds == null) {
+            return 0;
+        }
+
+        int common = 0;
+
+        for (long targetId : targetIds) {
+            for (long otherTargetId : otherTargetIds) {
+                if (targetId == otherTargetId) {
+                    common++;
+                }
+            }
+        }
+
+        return common;
+    }
+
+    /**
+     * Ids of the posts in any category or by any author of the given post, itself included.
+     */
+    long[] postsSharingFacet(long postId) {
+        lock.readLock().lock();
+
+        try {
+            CompressedBitmap sharing = new CompressedBitmap();
+
+            for (long categoryId : categoriesByPost.getOrDefault(postId, NO_IDS)) {
+                sharing = sharing.or(postsByCategory.getOrDefault(categoryId, EMPTY));
+            }
+
+            for (long authorId : authorsByPost.getOrDefault(postId, NO_IDS)) {
+                sharing = sharing.or(postsByAuthor.getOrDefault(authorId, EMPTY));
+            }
+
+            return sharing.page(0, Integer.MAX_VALUE, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Result query(FacetIndex.Filter filter, long offset, int limit, boolean descending) {
+        lock.readLock().lock();
+
+        try {
+            CompressedBitmap matches = included(filter);
+
+            for (Long categoryId : filter.excludedCategoryIds()) {
+                matches = matches.andNot(postsByCategory.getOrDefault(categoryId, EMPTY));
+            }
+
+            for (Long authorId : filter.excludedAuthorIds()) {
+                matches = matches.andNot(postsByAuthor.getOrDefault(authorId, EMPTY));
+            }
+
+            return new Result(matches.cardinality(), matches.page(offset, limit, descending),
+                    counts(categoryNames, postsByCategory, matches), counts(authorNames, postsByAuthor, matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompressedBitmap included(FacetIndex.Filter filter) {
+        List<CompressedBitmap> bitmaps = new ArrayList<>();
+
+        filter.categoryIds().forEach(categoryId -> bitmaps.add(postsByCategory.getOrDefault(categoryId, EMPTY)));
+        filter.authorIds().forEach(authorId -> bitmaps.add(postsByAuthor.getOrDefault(authorId, EMPTY)));
+
+        if (bitmaps.isEmpty()) {
+            return posts;
+        }
+
+        // intersecting from the smallest bitmap keeps every intermediate result small
+        if (filter.matchAll()) {
+            bitmaps.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+        }
+
+        CompressedBitmap result = bitmaps.get(0);
+
+        for (int i = 1; i < bitmaps.size(); i++) {
+            result = filter.matchAll() ? result.and(bitmaps.get(i)) : result.or(bitmaps.get(i));
+        }
+
+        return result;
+    }
+
+    private static List<Count> counts(Map<Long, String> names, Map<Long, CompressedBitmap> bitmaps, CompressedBitmap matches) {
+        List<Count> counts = new ArrayList<>(names.size());
+
+        names.forEach((id, name) -> counts.add(new Count(id, name, bitmaps.getOrDefault(id, EMPTY).andCardinality(matches))));
+        counts.sort(Comparator.comparingLong(Count::count).reversed().thenComparing(Count::name));
+
+        return counts;
+    }
+}
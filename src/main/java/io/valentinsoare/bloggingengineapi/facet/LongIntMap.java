@@ -0,0 +1,107 @@
+package io.valentinsoare.bloggingengineapi.facet;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map of non-negative long keys to int sums, used to score candidate posts without
+ * boxing a Long and an Integer per candidate.
+ */
+final class LongIntMap {
+    private static final long FREE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    void add(long key, int delta) {
+        int slot = slot(keys, key);
+
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+
+        keys[slot] = key;
+        values[slot] = delta;
+
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Keys with the highest sums, highest key first on equal sums, at most limit of them.
+     */
+    long[] top(int limit, long excludedKey) {
+        long[] topKeys = new long[Math.min(limit, size)];
+        int[] topValues = new int[topKeys.length];
+        int count = 0;
+
+        for (int slot = 0; slot < keys.length && topKeys.length > 0; slot++) {
+            long key = keys[slot];
+            int value = values[slot];
+
+            if (key == FREE || key == excludedKey) {
+                continue;
+            }
+
+            if (count == topKeys.length && !ranksAbove(value, key, topValues[count - 1], topKeys[count - 1])) {
+                continue;
+            }
+
+            int position = count == topKeys.length ? count - 1 : count++;
+
+            while (position > 0 && ranksAbove(value, key, topValues[position - 1], topKeys[position - 1])) {
+                topKeys[position] = topKeys[position - 1];
+                topValues[position] = topValues[position - 1];
+                position--;
+            }
+
+            topKeys[position] = key;
+            topValues[position] = value;
+        }
+
+        return count == topKeys.length ? topKeys : Arrays.copyOf(topKeys, count);
+    }
+
+    private static boolean ranksAbove(int value, long key, int otherValue, long otherKey) {
+        return value > otherValue || value == otherValue && key > otherKey;
+    }
+
+    private static int slot(long[] keys, long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void grow() {
+        long[] previousKeys = keys;
+        int[] previousValues = values;
+
+        keys = new long[previousKeys.length * 2];
+        values = new int[previousValues.length * 2];
+        Arrays.fill(keys, FREE);
+
+        for (int i = 0; i < previousKeys.length; i++) {
+            if (previousKeys[i] != FREE) {
+                int slot = slot(keys, previousKeys[i]);
+                keys[slot] = previousKeys[i];
+                values[slot] = previousValues[i];
+            }
+        }
+    }
+}
@@ -7,15 +7,18 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.SourceLocation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Aspect
 @Order(2)
 @Component
+@ConditionalOnProperty(name = "app.logging.aspects.mode", havingValue = "verbose", matchIfMissing = true)
 public class AroundLoggingAspect {
 
     @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnAllLayers()")
@@ -24,29 +27,31 @@ public class AroundLoggingAspect {
     }
 
     private <T> Object logAroundMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!log.isInfoEnabled()) {
+            return joinPoint.proceed();
+        }
+
         SourceLocation sourceLocation = joinPoint.getSourceLocation();
 
         String methodName = joinPoint.getSignature().getName();
         String className = sourceLocation.getWithinType().toString();
         Object[] methodArguments = joinPoint.getArgs();
 
-        long startTime = System.currentTimeMillis();
-        long endTime, executionTime;
+        long startTime = System.nanoTime();
+        long executionTime;
 
         try {
             Object resultOfExecution = joinPoint.proceed();
-            endTime = System.currentTimeMillis();
-            executionTime = endTime - startTime;
+            executionTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
 
-            log.info("{} -> returned method {} with arguments {} and result {}. Execution time: {} ms",
+            log.info("{} -> returned method {} with arguments {} and result {}. Execution time: {} µs",
                     className, methodName, Arrays.toString(methodArguments), resultOfExecution, executionTime);
 
             return resultOfExecution;
         } catch (Exception e) {
-            endTime = System.currentTimeMillis();
-            executionTime = endTime - startTime;
+            executionTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
 
-            String exceptionMessage = String.format("%s -> while executing method %s with arguments %s and exception %s. Execution tome: %s ms",
+            String exceptionMessage = String.format("%s -> while executing method %s with arguments %s and exception %s. Execution time: %s µs",
                     joinPoint.getSourceLocation().getWithinType().getName(), methodName, Arrays.toString(methodArguments), e.getMessage(), executionTime);
 
             log.error(
@@ -5,6 +5,7 @@ import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.SourceLocation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +15,7 @@ import java.util.Arrays;
 @Aspect
 @Order(1)
 @Component
+@ConditionalOnProperty(name = "app.logging.aspects.mode", havingValue = "verbose", matchIfMissing = true)
 public class BeforeLoggingAspect {
 
     @Before("io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnAllLayers()")
@@ -22,6 +24,10 @@ public class BeforeLoggingAspect {
     }
 
     private <T> void logBeforeMethodExecution(JoinPoint joinPoint) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+
         SourceLocation sourceLocation = joinPoint.getSourceLocation();
 
         String methodName = joinPoint.getSignature().getName();
@@ -0,0 +1,131 @@
+package io.valentinsoare.bloggingengineapi.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Aspect
+@Order(1)
+@Component
+@ConditionalOnProperty(name = "app.logging.aspects.mode", havingValue = "sampled")
+public class SampledLoggingAspect {
+    private final double controllerSamplingRate;
+    private final double serviceSamplingRate;
+    private final double repositorySamplingRate;
+    private final double securitySamplingRate;
+    private final int maxSummaryLength;
+
+    public SampledLoggingAspect(@Value("${app.logging.aspects.sampling.controller:1.0}") double controllerSamplingRate,
+                                @Value("${app.logging.aspects.sampling.service:0.1}") double serviceSamplingRate,
+                                @Value("${app.logging.aspects.sampling.repository:0.01}") double repositorySamplingRate,
+                                @Value("${app.logging.aspects.sampling.security:0.01}") double securitySamplingRate,
+                                @Value("${app.logging.aspects.max-summary-length:256}") int maxSummaryLength) {
+        this.controllerSamplingRate = controllerSamplingRate;
+        this.serviceSamplingRate = serviceSamplingRate;
+        this.repositorySamplingRate = repositorySamplingRate;
+        this.securitySamplingRate = securitySamplingRate;
+        this.maxSummaryLength = maxSummaryLength;
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnControllerLayer()")
+    public Object loggingOnControllerLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return logSampledMethodExecution(joinPoint, controllerSamplingRate);
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnServiceLayer()")
+    public Object loggingOnServiceLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return logSampledMethodExecution(joinPoint, serviceSamplingRate);
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnRepositoryLayer()")
+    public Object loggingOnRepositoryLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return logSampledMethodExecution(joinPoint, repositorySamplingRate);
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnSecurityLayer()")
+    public Object loggingOnSecurityLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return logSampledMethodExecution(joinPoint, securitySamplingRate);
+    }
+
+    // failures are always logged, successful calls only when sampled
+    private Object logSampledMethodExecution(ProceedingJoinPoint joinPoint, double samplingRate) throws Throwable {
+        boolean sampled = log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < samplingRate;
+        long startTime = System.nanoTime();
+
+        try {
+            Object resultOfExecution = joinPoint.proceed();
+
+            if (sampled) {
+                log.info("{} -> returned method {} with arguments {} and result {}. Execution time: {} µs",
+                        joinPoint.getSignature().getDeclaringTypeName(),
+                        joinPoint.getSignature().getName(),
+                        summarizeArguments(joinPoint.getArgs()),
+                        summarize(resultOfExecution),
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            }
+
+            return resultOfExecution;
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("{} -> while executing method {} with arguments {} and exception {}. Execution time: {} µs",
+                        joinPoint.getSignature().getDeclaringTypeName(),
+                        joinPoint.getSignature().getName(),
+                        summarizeArguments(joinPoint.getArgs()),
+                        StringUtils.abbreviate(e.getMessage(), maxSummaryLength),
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            }
+
+            throw e;
+        }
+    }
+
+    private String summarizeArguments(Object[] methodArguments) {
+        StringJoiner summary = new StringJoiner(", ", "[", "]");
+
+        for (Object argument : methodArguments) {
+            summary.add(summarize(argument));
+        }
+
+        return summary.toString();
+    }
+
+    // containers are reduced to their size so whole pages and graphs are never stringified
+    private String summarize(Object value) {
+        if (value == null) {
+            return "null";
+        }
+
+        if (value instanceof Collection<?> collection) {
+            return "%s[size=%d]".formatted(value.getClass().getSimpleName(), collection.size());
+        }
+
+        if (value instanceof Map<?, ?> map) {
+            return "%s[size=%d]".formatted(value.getClass().getSimpleName(), map.size());
+        }
+
+        if (value instanceof Slice<?> slice) {
+            return "%s[number=%d, size=%d]".formatted(value.getClass().getSimpleName(), slice.getNumber(), slice.getNumberOfElements());
+        }
+
+        if (value instanceof ResponseEntity<?> responseEntity) {
+            return "ResponseEntity[status=%s, body=%s]".formatted(responseEntity.getStatusCode(), summarize(responseEntity.getBody()));
+        }
+
+        return StringUtils.abbreviate(String.valueOf(value), maxSummaryLength);
+    }
+}
@@ -0,0 +1,32 @@
+package io.valentinsoare.bloggingengineapi.mapper;
+
+import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
+import io.valentinsoare.bloggingengineapi.entity.Author;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+
+/**
+ * Maps only the author's own columns; its posts are attached by the caller when needed,
+ * which keeps the Post - Author - Category cycle from being walked.
+ */
+@Component
+public class AuthorMapper {
+    public AuthorDto mapToDTO(Author author) {
+        return AuthorDto.builder()
+                .id(author.getId() == null ? 0L : author.getId())
+                .firstName(author.getFirstName())
+                .lastName(author.getLastName())
+                .email(author.getEmail())
+                .postsFromAuthor(new HashSet<>())
+                .build();
+    }
+
+    public Author mapToEntity(AuthorDto authorDto) {
+        return new Author()
+                .setId(authorDto.getId() > 0 ? authorDto.getId() : null)
+                .setFirstName(authorDto.getFirstName())
+                .setLastName(authorDto.getLastName())
+                .setEmail(authorDto.getEmail());
+    }
+}
@@ -0,0 +1,30 @@
+package io.valentinsoare.bloggingengineapi.mapper;
+
+import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
+import io.valentinsoare.bloggingengineapi.entity.Category;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+
+/**
+ * Maps only the category's own columns; its posts are never walked.
+ */
+@Component
+public class CategoryMapper {
+    public CategoryDto mapToDTO(Category category) {
+        return CategoryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .version(category.getVersion() == null ? 0L : category.getVersion())
+                .allPostsWithCategory(new HashSet<>())
+                .build();
+    }
+
+    public Category mapToEntity(CategoryDto categoryDto) {
+        return new Category()
+                .setId(categoryDto.getId())
+                .setName(categoryDto.getName())
+                .setDescription(categoryDto.getDescription());
+    }
+}
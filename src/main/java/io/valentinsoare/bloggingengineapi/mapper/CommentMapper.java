@@ -0,0 +1,27 @@
+package io.valentinsoare.bloggingengineapi.mapper;
+
+import io.valentinsoare.bloggingengineapi.dto.CommentDto;
+import io.valentinsoare.bloggingengineapi.entity.Comment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CommentMapper {
+    public CommentDto mapToDTO(Comment comment) {
+        return CommentDto.builder()
+                .id(comment.getId() == null ? 0L : comment.getId())
+                .name(comment.getName())
+                .email(comment.getEmail())
+                .body(comment.getBody())
+                .postId(comment.getPost() == null || comment.getPost().getId() == null ? 0L : comment.getPost().getId())
+                .version(comment.getVersion() == null ? 0L : comment.getVersion())
+                .build();
+    }
+
+    public Comment mapToEntity(CommentDto commentDto) {
+        return new Comment()
+                .setId(commentDto.getId() > 0 ? commentDto.getId() : null)
+                .setName(commentDto.getName())
+                .setEmail(commentDto.getEmail())
+                .setBody(commentDto.getBody());
+    }
+}
@@ -0,0 +1,65 @@
+package io.valentinsoare.bloggingengineapi.mapper;
+
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a post with its authors, categories and comments one level deep,
+ * the nested authors and categories come without their own post sets.
+ */
+@Component
+public class PostMapper {
+    private final AuthorMapper authorMapper;
+    private final CategoryMapper categoryMapper;
+    private final CommentMapper commentMapper;
+
+    public PostMapper(AuthorMapper authorMapper,
+                      CategoryMapper categoryMapper,
+                      CommentMapper commentMapper) {
+        this.authorMapper = authorMapper;
+        this.categoryMapper = categoryMapper;
+        this.commentMapper = commentMapper;
+    }
+
+    public PostDto mapToDTO(Post post) {
+        return PostDto.builder()
+                .id(post.getId() == null ? 0L : post.getId())
+                .title(post.getTitle())
+                .description(post.getDescription())
+                .content(post.getContent())
+                .commentCount(post.getCommentCount())
+                .version(post.getVersion() == null ? 0L : post.getVersion())
+                .lastModified(post.getUpdatedAt())
+                .authors(post.getAuthors().stream()
+                        .map(authorMapper::mapToDTO)
+                        .collect(Collectors.toSet()))
+                .categories(post.getCategories().stream()
+                        .map(categoryMapper::mapToDTO)
+                        .collect(Collectors.toSet()))
+                .comments(post.getComments().stream()
+                        .map(commentMapper::mapToDTO)
+                        .collect(Collectors.toSet()))
+                .build();
+    }
+
+    public Post mapToEntity(PostDto postDto) {
+        Post post = new Post()
+                .setId(postDto.getId() > 0 ? postDto.getId() : null)
+                .setTitle(postDto.getTitle())
+                .setDescription(postDto.getDescription())
+                .setContent(postDto.getContent())
+                .setCategories(new HashSet<>())
+                .setAuthors(new HashSet<>())
+                .setComments(new HashSet<>());
+
+        if (postDto.getComments() != null) {
+            postDto.getComments().forEach(commentDto -> post.addComment(commentMapper.mapToEntity(commentDto)));
+        }
+
+        return post;
+    }
+}
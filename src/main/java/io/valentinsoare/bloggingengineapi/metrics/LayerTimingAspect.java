@@ -0,0 +1,83 @@
+package io.valentinsoare.bloggingengineapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Order(3)
+@Component
+public class LayerTimingAspect {
+    public static final String METRIC_NAME = "bloggingengine.method.execution";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timersByMethod = new ConcurrentHashMap<>();
+
+    public LayerTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record MethodTimers(Timer success, Timer error) {}
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnControllerLayer()")
+    public Object timingOnControllerLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeMethodExecution(joinPoint, "controller");
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnServiceLayer()")
+    public Object timingOnServiceLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeMethodExecution(joinPoint, "service");
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnRepositoryLayer()")
+    public Object timingOnRepositoryLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeMethodExecution(joinPoint, "repository");
+    }
+
+    @Around(value = "io.valentinsoare.bloggingengineapi.logging.aop.AopMapping.methodsExecutionOnSecurityLayer()")
+    public Object timingOnSecurityLayer(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeMethodExecution(joinPoint, "security");
+    }
+
+    private Timer registerTimer(String layer, Method method, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Execution time of controller, service, repository and security methods")
+                .tag("layer", layer)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    // the timers are resolved once per method, not looked up by tags on every call
+    private Object timeMethodExecution(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers timers = timersByMethod.computeIfAbsent(method, m ->
+                new MethodTimers(registerTimer(layer, m, "success"), registerTimer(layer, m, "error"))
+        );
+
+        long startTime = System.nanoTime();
+
+        try {
+            Object resultOfExecution = joinPoint.proceed();
+            timers.success().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+            return resultOfExecution;
+        } catch (Throwable e) {
+            timers.error().record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package io.valentinsoare.bloggingengineapi.purge;
+
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
+import io.valentinsoare.bloggingengineapi.entity.TableVersion;
+import io.valentinsoare.bloggingengineapi.exception.ResourceNotFoundException;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
+import io.valentinsoare.bloggingengineapi.repository.CommentJdbcRepository;
+import io.valentinsoare.bloggingengineapi.repository.TableVersionRepository;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import io.valentinsoare.bloggingengineapi.search.PostSearchIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestionType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes large row sets in chunks of app.bulk.delete-chunk-size, each chunk in its own short
+ * transaction: the chunk's ids are selected first, then dependent rows (comments, join rows) and
+ * the rows themselves are deleted by id. Jobs run one at a time on a background thread and can be
+ * cancelled between chunks.
+ */
+@Slf4j
+@Component
+public class BulkDeleteEngine {
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate chunkTransaction;
+    private final CommentJdbcRepository commentJdbcRepository;
+    private final TableVersionRepository tableVersionRepository;
+    private final PostCache postCache;
+    private final PostSearchIndex postSearchIndex;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final int chunkSize;
+    private final int maxRetainedJobs;
+    private final Map<String, BulkDeleteJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BulkDeleteEngine(NamedParameterJdbcTemplate jdbc,
+                            PlatformTransactionManager transactionManager,
+                            CommentJdbcRepository commentJdbcRepository,
+                            TableVersionRepository tableVersionRepository,
+                            PostCache postCache,
+                            PostSearchIndex postSearchIndex,
+                            SuggestIndex suggestIndex,
+                            FacetIndex facetIndex,
+                            @Value("${app.bulk.delete-chunk-size:1000}") int chunkSize,
+                            @Value("${app.bulk.max-retained-jobs:100}") int maxRetainedJobs) {
+        this.jdbc = jdbc;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.commentJdbcRepository = commentJdbcRepository;
+        this.tableVersionRepository = tableVersionRepository;
+        this.postCache = postCache;
+        this.postSearchIndex = postSearchIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.chunkSize = chunkSize;
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public BulkDeleteJobResponse deletePosts(String description, String idSelector, Map<String, ?> parameters) {
+        return submit(new BulkDeleteJob(BulkDeleteJob.Target.POSTS, description, idSelector, parameters));
+    }
+
+    public BulkDeleteJobResponse deleteComments(String description, String idSelector, Map<String, ?> parameters) {
+        return submit(new BulkDeleteJob(BulkDeleteJob.Target.COMMENTS, description, idSelector, parameters));
+    }
+
+    public BulkDeleteJobResponse deleteCategories(String description, String idSelector, Map<String, ?> parameters) {
+        return submit(new BulkDeleteJob(BulkDeleteJob.Target.CATEGORIES, description, idSelector, parameters));
+    }
+
+    public BulkDeleteJobResponse deleteAuthors(String description, String idSelector, Map<String, ?> parameters) {
+        return submit(new BulkDeleteJob(BulkDeleteJob.Target.AUTHORS, description, idSelector, parameters));
+    }
+
+    public BulkDeleteJobResponse getJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    public List<BulkDeleteJobResponse> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(BulkDeleteJob::getCreatedAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public BulkDeleteJobResponse cancel(String jobId) {
+        BulkDeleteJob job = findJob(jobId);
+        job.requestCancel();
+
+        return toResponse(job);
+    }
+
+    private BulkDeleteJob findJob(String jobId) {
+        BulkDeleteJob job = jobs.get(jobId);
+
+        if (job == null) {
+            throw new ResourceNotFoundException("bulk delete job", new HashMap<>(Map.of("id", jobId)));
+        }
+
+        return job;
+    }
+
+    private BulkDeleteJobResponse submit(BulkDeleteJob job) {
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        runner.execute(() -> run(job));
+
+        log.info("Bulk delete job {} queued: {}.", job.getId(), job.getDescription());
+        return toResponse(job);
+    }
+
+    private void pruneFinishedJobs() {
+        List<BulkDeleteJob> finished = jobs.values().stream()
+                .filter(BulkDeleteJob::isFinished)
+                .sorted(Comparator.comparing(BulkDeleteJob::getFinishedAt))
+                .toList();
+
+        for (int i = 0; i < finished.size() - maxRetainedJobs + 1; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    private void run(BulkDeleteJob job) {
+        if (job.isCancelRequested()) {
+            job.finish(BulkDeleteJob.Status.CANCELLED, null);
+            return;
+        }
+
+        job.start();
+
+        try {
+            while (!job.isCancelRequested()) {
+                Integer rows = chunkTransaction.execute(status -> deleteChunk(job));
+
+                if (rows == null || rows == 0) {
+                    break;
+                }
+
+                job.chunkDone(rows);
+
+                if (rows < chunkSize) {
+                    break;
+                }
+            }
+
+            job.finish(job.isCancelRequested() ? BulkDeleteJob.Status.CANCELLED : BulkDeleteJob.Status.COMPLETED, null);
+            log.info("Bulk delete job {} {} after {} rows in {} chunks.",
+                    job.getId(), job.getStatus(), job.getDeleted().get(), job.getChunks().get());
+        } catch (Exception e) {
+            job.finish(BulkDeleteJob.Status.FAILED, e.getLocalizedMessage());
+            log.error("Bulk delete job {} failed after {} rows: {}", job.getId(), job.getDeleted().get(), e.getMessage());
+        }
+    }
+
+    private int deleteChunk(BulkDeleteJob job) {
+        Map<String, Object> parameters = new HashMap<>(job.getParameters());
+        parameters.put("chunkSize", chunkSize);
+
+        List<Long> ids = jdbc.queryForList(job.getIdSelector() + " ORDER BY id LIMIT :chunkSize", parameters, Long.class);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> byIds = Map.of("ids", ids);
+        List<Long> touchedPostIds;
+
+        switch (job.getTarget()) {
+            case POSTS -> {
+                jdbc.update("DELETE FROM comment WHERE post_id IN (:ids)", byIds);
+                jdbc.update("DELETE FROM post_category WHERE post_id IN (:ids)", byIds);
+                jdbc.update("DELETE FROM post_author WHERE post_id IN (:ids)", byIds);
+                jdbc.update("DELETE FROM post WHERE id IN (:ids)", byIds);
+                postSearchIndex.remove(ids);
+                suggestIndex.remove(SuggestionType.POST, ids);
+                facetIndex.removePosts(ids);
+                touchedPostIds = ids;
+            }
+            case COMMENTS -> {
+                Map<Long, Long> removedByPostId = new TreeMap<>();
+                jdbc.query("SELECT post_id, COUNT(*) AS removed FROM comment WHERE id IN (:ids) GROUP BY post_id", byIds,
+                        rs -> { removedByPostId.put(rs.getLong("post_id"), rs.getLong("removed")); });
+
+                jdbc.update("DELETE FROM comment WHERE id IN (:ids)", byIds);
+                commentJdbcRepository.addToCommentCounts(removedByPostId.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, removed -> -removed.getValue())));
+                touchedPostIds = new ArrayList<>(removedByPostId.keySet());
+            }
+            case CATEGORIES -> {
+                touchedPostIds = jdbc.queryForList("SELECT DISTINCT post_id FROM post_category WHERE category_id IN (:ids)", byIds, Long.class);
+                jdbc.update("DELETE FROM post_category WHERE category_id IN (:ids)", byIds);
+                jdbc.update("DELETE FROM category WHERE id IN (:ids)", byIds);
+                tableVersionRepository.bump(TableVersion.CATEGORY);
+                suggestIndex.remove(SuggestionType.CATEGORY, ids);
+                facetIndex.removeCategories(ids);
+                touchPosts(touchedPostIds);
+            }
+            case AUTHORS -> {
+                touchedPostIds = jdbc.queryForList("SELECT DISTINCT post_id FROM post_author WHERE author_id IN (:ids)", byIds, Long.class);
+                jdbc.update("DELETE FROM post_author WHERE author_id IN (:ids)", byIds);
+                jdbc.update("DELETE FROM author WHERE id IN (:ids)", byIds);
+                suggestIndex.remove(SuggestionType.AUTHOR, ids);
+                facetIndex.removeAuthors(ids);
+                touchPosts(touchedPostIds);
+            }
+            default -> throw new IllegalStateException("Unknown bulk delete target " + job.getTarget());
+        }
+
+        touchedPostIds.forEach(postCache::evict);
+        return ids.size();
+    }
+
+    private void touchPosts(List<Long> postIds) {
+        if (!postIds.isEmpty()) {
+            jdbc.update("UPDATE post SET version = version + 1, updated_at = CURRENT_TIMESTAMP(6) WHERE id IN (:ids)",
+                    Map.of("ids", postIds));
+        }
+    }
+
+    private BulkDeleteJobResponse toResponse(BulkDeleteJob job) {
+        return BulkDeleteJobResponse.builder()
+                .jobId(job.getId())
+                .target(job.getTarget().name())
+                .description(job.getDescription())
+                .status(job.getStatus().name())
+                .deleted(job.getDeleted().get())
+                .chunks(job.getChunks().get())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .message(job.getMessage())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(BulkDeleteJob::requestCancel);
+        runner.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package io.valentinsoare.bloggingengineapi.purge;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class BulkDeleteJob {
+    public enum Target { POSTS, COMMENTS, CATEGORIES, AUTHORS }
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Target target;
+    private final String description;
+    private final String idSelector;
+    private final Map<String, ?> parameters;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicInteger chunks = new AtomicInteger();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    BulkDeleteJob(Target target, String description, String idSelector, Map<String, ?> parameters) {
+        this.target = target;
+        this.description = description;
+        this.idSelector = idSelector;
+        this.parameters = parameters;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void chunkDone(int rows) {
+        deleted.addAndGet(rows);
+        chunks.incrementAndGet();
+    }
+
+    void finish(Status finalStatus, String finalMessage) {
+        message = finalMessage;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,178 @@
+package io.valentinsoare.bloggingengineapi.related;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed "more like this" lists: for every post, the ids of the posts sharing the most categories
+ * and authors with it, read from the facet index bitmaps. A background job recomputes every post once
+ * the facet index is complete and every app.related.full-refresh-interval-ms. In between it only
+ * recomputes the posts written or removed since its last run, the posts listing one of them, and the
+ * posts sharing a category or author with one of them that it now scores high enough to be listed by.
+ */
+@Slf4j
+@Component
+public class RelatedPostsIndex {
+    private final FacetIndex facetIndex;
+    private final int topN;
+    private final int maxCandidatesPerFacet;
+    private final int categoryWeight;
+    private final int authorWeight;
+    private final long fullRefreshIntervalMs;
+    private final Timer refreshTimer;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "related-posts-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // written only by the refresher thread, replaced as a whole on a full refresh
+    private volatile Map<Long, long[]> relatedByPost = new ConcurrentHashMap<>();
+    private volatile long lastFullRefresh;
+
+    public RelatedPostsIndex(FacetIndex facetIndex,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.related.top-n:10}") int topN,
+                             @Value("${app.related.max-candidates-per-facet:1000}") int maxCandidatesPerFacet,
+                             @Value("${app.related.category-weight:1}") int categoryWeight,
+                             @Value("${app.related.author-weight:2}") int authorWeight,
+                             @Value("${app.related.full-refresh-interval-ms:3600000}") long fullRefreshIntervalMs) {
+        this.facetIndex = facetIndex;
+        this.topN = topN;
+        this.maxCandidatesPerFacet = maxCandidatesPerFacet;
+        this.categoryWeight = categoryWeight;
+        this.authorWeight = authorWeight;
+        this.fullRefreshIntervalMs = fullRefreshIntervalMs;
+        this.refreshTimer = Timer.builder("bloggingengine.posts.related.refresh")
+                .description("Time to recompute related posts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Related post ids, best match first, or empty if the post has not been computed yet.
+     */
+    public Optional<long[]> get(long postId) {
+        return Optional.ofNullable(relatedByPost.get(postId));
+    }
+
+    public boolean isComplete() {
+        return lastFullRefresh > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!facetIndex.isComplete() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        refresher.execute(() -> {
+            try {
+                refreshTimer.record(this::runRefresh);
+            } catch (Exception e) {
+                log.error("Related posts refresh failed, keeping the current lists: {}", e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private void runRefresh() {
+        Set<Long> changed = facetIndex.drainChangedPosts();
+
+        if (System.currentTimeMillis() - lastFullRefresh >= fullRefreshIntervalMs) {
+            refreshAll();
+            return;
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Set<Long> dirty = new HashSet<>(changed);
+
+        // a post listing a changed one has to be recomputed even if they no longer share anything
+        relatedByPost.forEach((postId, related) -> {
+            for (long relatedId : related) {
+                if (changed.contains(relatedId)) {
+                    dirty.add(postId);
+                    return;
+                }
+            }
+        });
+
+        long candidates = 0;
+        long postCount = facetIndex.postCount();
+
+        for (Long postId : changed) {
+            long[] sharing = facetIndex.postsSharingFacet(postId);
+            candidates += sharing.length;
+
+            // checking more candidates than there are posts costs more than recomputing every post
+            if (candidates > postCount) {
+                refreshAll();
+                return;
+            }
+
+            for (long candidate : sharing) {
+                if (!dirty.contains(candidate) && couldList(candidate, postId)) {
+                    dirty.add(candidate);
+                }
+            }
+        }
+
+        dirty.forEach(this::recompute);
+    }
+
+    private void refreshAll() {
+        long started = System.currentTimeMillis();
+        long[] postIds = facetIndex.allPostIds();
+        Map<Long, long[]> rebuilt = new ConcurrentHashMap<>(postIds.length * 4 / 3 + 1);
+
+        for (long postId : postIds) {
+            facetIndex.related(postId, topN, maxCandidatesPerFacet, categoryWeight, authorWeight)
+                    .ifPresent(related -> rebuilt.put(postId, related));
+        }
+
+        relatedByPost = rebuilt;
+        lastFullRefresh = System.currentTimeMillis();
+
+        log.info("Related posts computed for {} posts in {} ms.", rebuilt.size(), lastFullRefresh - started);
+    }
+
+    /**
+     * Whether the changed post scores at least as high for the candidate as the last post it lists.
+     */
+    private boolean couldList(long candidate, long changedPostId) {
+        long[] current = relatedByPost.get(candidate);
+
+        if (current == null || current.length < topN) {
+            return true;
+        }
+
+        return facetIndex.overlap(candidate, changedPostId, categoryWeight, authorWeight)
+                >= facetIndex.overlap(candidate, current[current.length - 1], categoryWeight, authorWeight);
+    }
+
+    private void recompute(long postId) {
+        facetIndex.related(postId, topN, maxCandidatesPerFacet, categoryWeight, authorWeight)
+                .ifPresentOrElse(related -> relatedByPost.put(postId, related), () -> relatedByPost.remove(postId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,8 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     @Query(nativeQuery = true, value = "SELECT * FROM author WHERE last_name = :lastName")
     Page<Author> getAuthorsByLastName(String lastName, Pageable pageable);
 
+    List<Author> findAllByEmailIn(Collection<String> emails);
+
     @Query(nativeQuery = true, value = "SELECT EXISTS(SELECT 1 FROM author WHERE email = :email)")
     Boolean existsByEmail(String email);
 
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByIdIn(List<Long> categoryIds);
     boolean existsByName(String name);
     Optional<Category> findCategoryByName(String name);
+    List<Category> findAllByNameIn(Collection<String> names);
 
     @EntityGraph(value = "category-with-posts", type = EntityGraph.EntityGraphType.LOAD)
     Page<Category> findAll(Pageable pageable);
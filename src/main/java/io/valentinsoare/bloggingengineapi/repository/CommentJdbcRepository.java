@@ -0,0 +1,68 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import io.valentinsoare.bloggingengineapi.dto.CommentDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Repository
+public class CommentJdbcRepository {
+    private static final String INSERT_COMMENT = "INSERT INTO comment (name, email, body, post_id) VALUES (?, ?, ?, ?)";
+    private static final String ADD_TO_COMMENT_COUNT = "UPDATE post SET comment_count = GREATEST(comment_count + ?, 0), " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP(6) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public CommentJdbcRepository(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public Set<Long> findExistingPostIds(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM post WHERE id IN (:ids)", Map.of("ids", postIds), Long.class));
+    }
+
+    // rows are updated in id order so concurrent flushes lock the same posts in the same order
+    public void addToCommentCounts(Map<Long, Long> deltasByPostId) {
+        if (deltasByPostId.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>(new TreeMap<>(deltasByPostId).entrySet());
+
+        jdbcTemplate.batchUpdate(ADD_TO_COMMENT_COUNT, deltas, deltas.size(),
+                (ps, delta) -> {
+                    ps.setLong(1, delta.getValue());
+                    ps.setLong(2, delta.getKey());
+                });
+    }
+
+    public void insertComments(List<CommentDto> comments) {
+        if (comments.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_COMMENT, comments, comments.size(),
+                (ps, comment) -> {
+                    ps.setString(1, comment.getName());
+                    ps.setString(2, comment.getEmail());
+                    ps.setString(3, comment.getBody());
+                    ps.setLong(4, comment.getPostId());
+                });
+    }
+}
@@ -0,0 +1,156 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+@Repository
+public class PostJdbcRepository {
+    private static final String INSERT_POST = "INSERT INTO post (title, description, content) VALUES (?, ?, ?)";
+    private static final String INSERT_POST_CATEGORY = "INSERT INTO post_category (post_id, category_id) VALUES (?, ?)";
+    private static final String INSERT_POST_AUTHOR = "INSERT INTO post_author (post_id, author_id) VALUES (?, ?)";
+    private static final String ADD_TO_VIEW_COUNT = "UPDATE post SET view_count = view_count + ? WHERE id = ?";
+
+    // LAST_INSERT_ID(id) makes the generated key the id of the existing row when the title is taken
+    private static final String UPSERT_POST = """
+            INSERT INTO post (title, description, content) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), description = VALUES(description), content = VALUES(content),
+            version = version + 1, updated_at = CURRENT_TIMESTAMP(6)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public PostJdbcRepository(JdbcTemplate jdbcTemplate,
+                              NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    private Map<String, Long> findIdsByKeys(String sql, String keyColumn, Collection<String> keys) {
+        Map<String, Long> idsByKey = new HashMap<>();
+
+        if (keys.isEmpty()) {
+            return idsByKey;
+        }
+
+        namedParameterJdbcTemplate.query(sql, Map.of("keys", keys),
+                resultSet -> {
+                    idsByKey.put(resultSet.getString(keyColumn), resultSet.getLong("id"));
+                });
+
+        return idsByKey;
+    }
+
+    public Map<String, Long> findCategoryIdsByNames(Collection<String> names) {
+        return findIdsByKeys("SELECT id, name FROM category WHERE name IN (:keys)", "name", names);
+    }
+
+    public Map<String, Long> findAuthorIdsByEmails(Collection<String> emails) {
+        return findIdsByKeys("SELECT id, email FROM author WHERE email IN (:keys)", "email", emails);
+    }
+
+    public Map<String, Long> findPostIdsByTitles(Collection<String> titles) {
+        return findIdsByKeys("SELECT id, title FROM post WHERE title IN (:keys)", "title", titles);
+    }
+
+    // ids come back in insert order, one per post
+    public List<Long> insertPosts(List<PostDto> posts) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_POST, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PostDto post = posts.get(i);
+
+                        ps.setString(1, post.getTitle());
+                        ps.setString(2, post.getDescription());
+                        ps.setString(3, post.getContent());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return posts.size();
+                    }
+                },
+                keyHolder
+        );
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private void insertJoinRows(String sql, Map<Long, ? extends Collection<Long>> idsByPostId) {
+        List<Object[]> rows = new ArrayList<>();
+
+        idsByPostId.forEach((postId, ids) -> ids.forEach(id -> rows.add(new Object[]{postId, id})));
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    public void insertPostCategories(Map<Long, ? extends Collection<Long>> categoryIdsByPostId) {
+        insertJoinRows(INSERT_POST_CATEGORY, categoryIdsByPostId);
+    }
+
+    public void insertPostAuthors(Map<Long, ? extends Collection<Long>> authorIdsByPostId) {
+        insertJoinRows(INSERT_POST_AUTHOR, authorIdsByPostId);
+    }
+
+    /**
+     * Returns the MySQL affected-rows count: 1 for an insert, 2 for an update. The version bump
+     * guarantees the existing row always changes, so the two cases never report the same count.
+     */
+    public int upsertPost(PostDto post, KeyHolder keyHolder) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPSERT_POST, Statement.RETURN_GENERATED_KEYS);
+
+            ps.setString(1, post.getTitle());
+            ps.setString(2, post.getDescription());
+            ps.setString(3, post.getContent());
+            return ps;
+        }, keyHolder);
+    }
+
+    private void reconcileJoinRows(String table, String column, Long postId, Collection<Long> ids) {
+        namedParameterJdbcTemplate.update(
+                "DELETE FROM %s WHERE post_id = :postId AND %s NOT IN (:ids)".formatted(table, column),
+                Map.of("postId", postId, "ids", ids));
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO %1$s (post_id, %2$s) VALUES (?, ?) ON DUPLICATE KEY UPDATE %2$s = %2$s".formatted(table, column),
+                ids.stream().map(id -> new Object[]{postId, id}).toList());
+    }
+
+    public void reconcilePostCategories(Long postId, Collection<Long> categoryIds) {
+        reconcileJoinRows("post_category", "category_id", postId, categoryIds);
+    }
+
+    public void reconcilePostAuthors(Long postId, Collection<Long> authorIds) {
+        reconcileJoinRows("post_author", "author_id", postId, authorIds);
+    }
+
+    // view counts are not part of the post version, so a hot post keeps its ETag while it is being read
+    public void addToViewCounts(SortedMap<Long, Long> deltasByPostId) {
+        if (deltasByPostId.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(ADD_TO_VIEW_COUNT, deltasByPostId.entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList());
+    }
+}
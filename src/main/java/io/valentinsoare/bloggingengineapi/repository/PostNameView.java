@@ -0,0 +1,6 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+public interface PostNameView {
+    Long getPostId();
+    String getName();
+}
@@ -1,20 +1,35 @@
 package io.valentinsoare.bloggingengineapi.repository;
 
 import io.valentinsoare.bloggingengineapi.entity.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    @Query(nativeQuery = true, value = "SELECT * FROM post WHERE author_id IN (SELECT id FROM author WHERE email = :email)")
-    Page<Post> getAllPostsByAuthorEmail(String email, Pageable pageable);
+    // the PostSummaryView columns, so filtered listings never read the content column
+    String SUMMARY_COLUMNS = "p.id AS id, p.title AS title, p.description AS description, "
+            + "p.comment_count AS commentCount, p.view_count AS viewCount";
+
+    // the relations live in post_author/post_category, looked up through their (author_id|category_id, post_id) indexes
+    @Query(nativeQuery = true,
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pa.post_id FROM post_author pa JOIN author a ON a.id = pa.author_id WHERE a.email = :email)",
+            countQuery = "SELECT COUNT(*) FROM post_author pa JOIN author a ON a.id = pa.author_id WHERE a.email = :email"
+    )
+    Page<PostSummaryView> getAllPostsByAuthorEmail(String email, Pageable pageable);
 
     @Query(value = "SELECT p FROM post p WHERE p.title = :title")
     @EntityGraph(value = "post-with-authors-categories-comments", type = EntityGraph.EntityGraphType.LOAD)
@@ -28,51 +43,94 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query(value = "SELECT p FROM post p WHERE p.id = :id")
     Post getPostById(Long id);
 
-    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM post WHERE author_id = :id")
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM post_author WHERE author_id = :id")
     Long countPostByAuthorId(Long id);
 
-    @Modifying
-    @Query(nativeQuery = true, value = "DELETE FROM post WHERE author_id = :id")
-    void deleteAllByAuthorId(Long id);
-
-    @Query(nativeQuery = true, value = "SELECT * FROM post WHERE author_id = :id")
-    Page<Post> getAllPostsByAuthorId(Long id, Pageable pageable);
+    @Query(nativeQuery = true,
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pa.post_id FROM post_author pa WHERE pa.author_id = :id)",
+            countQuery = "SELECT COUNT(*) FROM post_author pa WHERE pa.author_id = :id"
+    )
+    Page<PostSummaryView> getAllPostsByAuthorId(Long id, Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "SELECT * FROM post WHERE author_id IN (SELECT id FROM author WHERE first_name = :firstName)"
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pa.post_id FROM post_author pa JOIN author a ON a.id = pa.author_id WHERE a.last_name = :lastName)",
+            countQuery = "SELECT COUNT(DISTINCT pa.post_id) FROM post_author pa JOIN author a ON a.id = pa.author_id WHERE a.last_name = :lastName"
     )
-    Page<Post> getAllPostsByAuthorLastName(String firstName, Pageable pageable);
+    Page<PostSummaryView> getAllPostsByAuthorLastName(String lastName, Pageable pageable);
 
     Page<Post> findAll(Pageable pageable);
 
+    Window<PostSummaryView> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(value = "SELECT p.version AS version, p.updatedAt AS updatedAt FROM post p WHERE p.id = :id")
+    Optional<VersionView> findVersionById(Long id);
+
+    // comment writes bump the post version too, so the post ETag covers its comments
+    @Modifying
+    @Query(value = "UPDATE post p SET p.version = p.version + 1, p.updatedAt = :now WHERE p.id IN :ids")
+    int touchPosts(Collection<Long> ids, Instant now);
+
+    @Modifying
     @Query(nativeQuery = true,
-            value = "SELECT * FROM post WHERE category_id IN (SELECT id FROM category WHERE name = :categoryName)"
+            value = "UPDATE post SET comment_count = GREATEST(comment_count + :delta, 0), version = version + 1, updated_at = CURRENT_TIMESTAMP(6) WHERE id = :id"
     )
-    Page<Post> getAllPostsByCategoryName(String categoryName, Pageable pageable);
+    int addToCommentCount(Long id, long delta);
 
-    @Query(nativeQuery = true, value = "SELECT * FROM post WHERE category_id = :categoryId")
-    Page<Post> getAllPostsByCategoryId(Long categoryId, Pageable pageable);
+    @Query(value = "SELECT p.commentCount FROM post p WHERE p.id = :id")
+    Optional<Long> findCommentCountById(Long id);
 
-    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM post WHERE category_id = :categoryId")
-    Long countPostByCategoryId(Long categoryId);
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.description AS description, p.commentCount AS commentCount, p.viewCount AS viewCount FROM post p",
+            countQuery = "SELECT COUNT(p) FROM post p"
+    )
+    Page<PostSummaryView> findAllSummaries(Pageable pageable);
 
-    @Modifying
-    @Query(nativeQuery = true, value = "DELETE FROM post WHERE category_id = :categoryId")
-    void deleteAllPostsByCategoryId(Long categoryId);
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.description AS description, p.commentCount AS commentCount, p.viewCount AS viewCount FROM post p ORDER BY p.viewCount DESC, p.id DESC")
+    List<PostSummaryView> findMostViewedSummaries(Limit limit);
+
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.description AS description, p.commentCount AS commentCount, p.viewCount AS viewCount FROM post p WHERE p.id IN :ids")
+    List<PostSummaryView> findSummariesByIds(Collection<Long> ids);
+
+    @Query(value = "SELECT p.id AS postId, CONCAT(a.firstName, ' ', a.lastName) AS name FROM post p JOIN p.authors a WHERE p.id IN :postIds")
+    List<PostNameView> findAuthorNamesByPostIds(Collection<Long> postIds);
+
+    @Query(value = "SELECT p.id AS postId, c.name AS name FROM post p JOIN p.categories c WHERE p.id IN :postIds")
+    List<PostNameView> findCategoryNamesByPostIds(Collection<Long> postIds);
 
-    @Modifying
     @Query(nativeQuery = true,
-            value = "DELETE FROM post WHERE category_id IN (SELECT id FROM category WHERE name = :categoryName)"
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pc.post_id FROM post_category pc JOIN category c ON c.id = pc.category_id WHERE c.name = :categoryName)",
+            countQuery = "SELECT COUNT(*) FROM post_category pc JOIN category c ON c.id = pc.category_id WHERE c.name = :categoryName"
     )
-    void deleteAllPostsByCategoryName(String categoryName);
+    Page<PostSummaryView> getAllPostsByCategoryName(String categoryName, Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pc.post_id FROM post_category pc WHERE pc.category_id = :categoryId)",
+            countQuery = "SELECT COUNT(*) FROM post_category pc WHERE pc.category_id = :categoryId"
+    )
+    Page<PostSummaryView> getAllPostsByCategoryId(Long categoryId, Pageable pageable);
+
+    @Query(nativeQuery = true, value = "SELECT pa.post_id FROM post_author pa WHERE pa.author_id = :authorId")
+    List<Long> findPostIdsByAuthorId(Long authorId);
+
+    @Query(nativeQuery = true, value = "SELECT pc.post_id FROM post_category pc WHERE pc.category_id = :categoryId")
+    List<Long> findPostIdsByCategoryId(Long categoryId);
+
+    @Query(nativeQuery = true, value = "SELECT COUNT(*) FROM post_category WHERE category_id = :categoryId")
+    Long countPostByCategoryId(Long categoryId);
 
     @Query(nativeQuery = true,
-            value = "SELECT * FROM post WHERE author_id IN (SELECT id FROM author WHERE email = :email) AND category_id IN (SELECT id FROM category WHERE name = :categoryName)"
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pa.post_id FROM post_author pa JOIN author a ON a.id = pa.author_id WHERE a.email = :email) "
+                    + "AND p.id IN (SELECT pc.post_id FROM post_category pc JOIN category c ON c.id = pc.category_id WHERE c.name = :categoryName)",
+            countQuery = "SELECT COUNT(*) FROM post_author pa JOIN author a ON a.id = pa.author_id "
+                    + "JOIN post_category pc ON pc.post_id = pa.post_id JOIN category c ON c.id = pc.category_id "
+                    + "WHERE a.email = :email AND c.name = :categoryName"
     )
-    Page<Post> getPostsByAuthorEmailAndCategoryName(String email, String categoryName, Pageable pageable);
+    Page<PostSummaryView> getPostsByAuthorEmailAndCategoryName(String email, String categoryName, Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "SELECT * FROM post WHERE author_id = :authorId AND category_id = :categoryId"
+            value = "SELECT " + SUMMARY_COLUMNS + " FROM post p WHERE p.id IN (SELECT pa.post_id FROM post_author pa WHERE pa.author_id = :authorId) "
+                    + "AND p.id IN (SELECT pc.post_id FROM post_category pc WHERE pc.category_id = :categoryId)",
+            countQuery = "SELECT COUNT(*) FROM post_author pa JOIN post_category pc ON pc.post_id = pa.post_id "
+                    + "WHERE pa.author_id = :authorId AND pc.category_id = :categoryId"
     )
-    Page<Post> getPostsByAuthorIdAndCategoryId(Long authorId, Long categoryId, Pageable pageable);
+    Page<PostSummaryView> getPostsByAuthorIdAndCategoryId(Long authorId, Long categoryId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+public interface PostSummaryView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    long getCommentCount();
+    long getViewCount();
+}
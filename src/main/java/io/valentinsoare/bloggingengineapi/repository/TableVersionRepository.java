@@ -0,0 +1,21 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import io.valentinsoare.bloggingengineapi.entity.TableVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface TableVersionRepository extends JpaRepository<TableVersion, String> {
+    // the row lock is held until the writing transaction commits, so concurrent writes get distinct versions
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "INSERT INTO table_version (table_name, version, updated_at) VALUES (:tableName, 1, CURRENT_TIMESTAMP(6)) " +
+                    "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = CURRENT_TIMESTAMP(6)"
+    )
+    void bump(String tableName);
+
+    @Query(value = "SELECT t.version AS version, t.updatedAt AS updatedAt FROM table_version t WHERE t.tableName = :tableName")
+    Optional<VersionView> findVersionByTableName(String tableName);
+}
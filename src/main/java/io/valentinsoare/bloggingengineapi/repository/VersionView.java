@@ -0,0 +1,8 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import java.time.Instant;
+
+public interface VersionView {
+    Long getVersion();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,42 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Schema(description = "Progress of a background bulk delete")
+public class BulkDeleteJobResponse {
+    @Schema(description = "ID of the job", example = "3f1c2a9e-7a55-4a47-9f0e-5d1c0c1b2f6e")
+    private String jobId;
+
+    @Schema(description = "Kind of rows the job deletes", example = "POSTS")
+    private String target;
+
+    @Schema(description = "What the job deletes", example = "posts with author id 7")
+    private String description;
+
+    @Schema(description = "State of the job", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "Rows of the target deleted so far", example = "12000")
+    private long deleted;
+
+    @Schema(description = "Chunks committed so far", example = "12")
+    private int chunks;
+
+    @Schema(description = "When the job was submitted")
+    private Instant createdAt;
+
+    @Schema(description = "When the job started running")
+    private Instant startedAt;
+
+    @Schema(description = "When the job completed, was cancelled or failed")
+    private Instant finishedAt;
+
+    @Schema(description = "Failure reason, if any")
+    private String message;
+}
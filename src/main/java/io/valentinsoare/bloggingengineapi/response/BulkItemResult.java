@@ -0,0 +1,27 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one item of a bulk request")
+public class BulkItemResult {
+    public enum Status { CREATED, UPDATED, FAILED }
+
+    @Schema(description = "Position of the item in the request body", example = "0")
+    private int index;
+
+    @Schema(description = "Outcome of the item", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "ID of the stored resource", example = "1")
+    private Long id;
+
+    @Schema(description = "Reason the item was rejected", example = "No categories found for post.")
+    private String message;
+}
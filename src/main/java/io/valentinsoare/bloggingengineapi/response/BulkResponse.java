@@ -0,0 +1,24 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Response object for bulk requests")
+public class BulkResponse {
+    @Schema(description = "Items read from the request body", example = "1000")
+    private int received;
+
+    @Schema(description = "Items stored", example = "998")
+    private int succeeded;
+
+    @Schema(description = "Items rejected", example = "2")
+    private int failed;
+
+    @Schema(description = "Per-item outcome, in request order", example = "[BulkItemResult]")
+    private List<BulkItemResult> results;
+}
@@ -0,0 +1,40 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.valentinsoare.bloggingengineapi.dto.FacetCountDto;
+import io.valentinsoare.bloggingengineapi.dto.PostSummaryDto;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Response object for posts filtered by categories and authors, with the matches counted per category and author")
+public class FacetResponse {
+    @Schema(description = "Matching posts on page", example = "[PostSummaryDto]")
+    private List<PostSummaryDto> pageContent;
+
+    @Schema(description = "Page number", example = "0")
+    private int pageNo;
+
+    @Schema(description = "Page size", example = "10")
+    private int pageSize;
+
+    @Schema(description = "Total matching posts", example = "42")
+    private long totalMatches;
+
+    @Schema(description = "Total pages", example = "5")
+    private int totalPages;
+
+    @Schema(description = "Is last page", example = "true")
+    private boolean isLast;
+
+    @Schema(description = "Matching posts per category, every category included", example = "[FacetCountDto]")
+    private List<FacetCountDto> categories;
+
+    @Schema(description = "Matching posts per author, every author included", example = "[FacetCountDto]")
+    private List<FacetCountDto> authors;
+
+    @Schema(description = "False while the index is still being built from the database", example = "true")
+    private boolean indexComplete;
+}
@@ -1,7 +1,7 @@
 package io.valentinsoare.bloggingengineapi.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.dto.PostSummaryDto;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -13,8 +13,8 @@ import java.util.List;
 @Schema(description = "Response object for Post")
 public class PostResponse {
     @NotNull
-    @Schema(description = "Posts on page", example = "[PostDto]")
-    private List<PostDto> pageContent;
+    @Schema(description = "Posts on page", example = "[PostSummaryDto]")
+    private List<PostSummaryDto> pageContent;
 
     @Schema(description = "Page number", example = "0")
     @Min(value = 0, message = "Page number must be greater than or equal to 0!")
@@ -35,4 +35,7 @@ public class PostResponse {
     @NotNull
     @Schema(description = "Is last page", example = "true")
     private boolean isLast;
+
+    @Schema(description = "Opaque cursor for the next page, only set in keyset mode", example = "eyJzb3J0QnkiOiJpZCJ9")
+    private String nextCursor;
 }
@@ -0,0 +1,33 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.valentinsoare.bloggingengineapi.dto.SearchHitDto;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Response object for a post search")
+public class SearchResponse {
+    @Schema(description = "Matching posts on page, best match first", example = "[SearchHitDto]")
+    private List<SearchHitDto> pageContent;
+
+    @Schema(description = "Page number", example = "0")
+    private int pageNo;
+
+    @Schema(description = "Page size", example = "10")
+    private int pageSize;
+
+    @Schema(description = "Total matching posts", example = "42")
+    private long totalHits;
+
+    @Schema(description = "Total pages", example = "5")
+    private int totalPages;
+
+    @Schema(description = "Is last page", example = "true")
+    private boolean isLast;
+
+    @Schema(description = "False while the index is still being built from the database", example = "true")
+    private boolean indexComplete;
+}
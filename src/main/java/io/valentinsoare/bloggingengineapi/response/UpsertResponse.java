@@ -0,0 +1,19 @@
+package io.valentinsoare.bloggingengineapi.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Response object for upsert requests")
+public class UpsertResponse {
+    @Schema(description = "ID of the stored resource", example = "1")
+    private Long id;
+
+    @Schema(description = "Natural key the upsert matched on", example = "Post title")
+    private String title;
+
+    @Schema(description = "True if a new resource was inserted, false if an existing one was updated", example = "true")
+    private boolean created;
+}
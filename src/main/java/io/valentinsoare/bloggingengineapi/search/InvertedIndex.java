@@ -0,0 +1,226 @@
+package io.valentinsoare.bloggingengineapi.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to posting list index over post title, description and content, ranked with BM25. A term found in
+ * the title counts three times and one in the description twice, towards both its frequency and the
+ * document length. Every write of a post is indexed as a new document and the previous one becomes a
+ * tombstone, so posting lists are only ever appended to. Only the title, the description and the start
+ * of the content are kept, for snippets, so a search never has to go back to MySQL.
+ */
+final class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int STORED_CONTENT_LENGTH = 1000;
+
+    record Document(int docId, long postId, String title, String description, String contentStart, int length,
+                    PostingList[] postingLists) {}
+
+    record Hit(Document document, double score) {}
+
+    record Result(List<Hit> hits, int totalHits) {}
+
+    // worst hit first, so the head of a bounded heap is the one to drop
+    private static final Comparator<Hit> WORST_FIRST = (a, b) -> a.score() != b.score()
+            ? Double.compare(a.score(), b.score())
+            : Long.compare(b.document().postId(), a.document().postId());
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // indexed by document id, null once the document is removed or replaced
+    private Document[] documentsById = new Document[64];
+    private int nextDocId;
+    private long totalLength;
+
+    private static void count(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    void put(long postId, String title, String description, String content) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+
+        count(termFrequencies, title, TITLE_WEIGHT);
+        count(termFrequencies, description, DESCRIPTION_WEIGHT);
+        count(termFrequencies, content, CONTENT_WEIGHT);
+
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        String contentStart = content == null || content.length() <= STORED_CONTENT_LENGTH
+                ? content
+                : content.substring(0, STORED_CONTENT_LENGTH);
+
+        lock.writeLock().lock();
+
+        try {
+            delete(documents.get(postId));
+
+            int docId = nextDocId++;
+            PostingList[] postingLists = new PostingList[termFrequencies.size()];
+            int i = 0;
+
+            for (Map.Entry<String, Integer> termFrequency : termFrequencies.entrySet()) {
+                PostingList postingList = postings.computeIfAbsent(termFrequency.getKey(), PostingList::new);
+                postingList.append(docId, termFrequency.getValue());
+                postingLists[i++] = postingList;
+            }
+
+            Document document = new Document(docId, postId, title, description, contentStart, length, postingLists);
+
+            if (docId == documentsById.length) {
+                documentsById = Arrays.copyOf(documentsById, documentsById.length * 2);
+            }
+
+            documentsById[docId] = document;
+            documents.put(postId, document);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long postId) {
+        lock.writeLock().lock();
+
+        try {
+            delete(documents.remove(postId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Document document) {
+        if (document == null) {
+            return;
+        }
+
+        documentsById[document.docId()] = null;
+        totalLength -= document.length();
+
+        for (PostingList postingList : document.postingLists()) {
+            postingList.markDeleted(docId -> documentsById[docId] != null);
+
+            if (postingList.liveSize() == 0) {
+                postings.remove(postingList.term(), postingList);
+            }
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the posting lists of all terms side by side in document id order, scoring each matching
+     * document once and keeping only the best offset + limit of them.
+     */
+    Result search(Collection<String> terms, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(wanted, 1024), WORST_FIRST);
+        int totalHits = 0;
+
+        lock.readLock().lock();
+
+        try {
+            int documentCount = documents.size();
+
+            if (documentCount == 0) {
+                return new Result(List.of(), 0);
+            }
+
+            double averageLength = (double) totalLength / documentCount;
+            List<PostingList.Cursor> cursors = new ArrayList<>(terms.size());
+            List<Double> idfs = new ArrayList<>(terms.size());
+
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+
+                if (postingList == null) {
+                    continue;
+                }
+
+                PostingList.Cursor cursor = postingList.cursor();
+
+                if (cursor.next()) {
+                    int documentFrequency = postingList.liveSize();
+                    cursors.add(cursor);
+                    idfs.add(Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5)));
+                }
+            }
+
+            while (!cursors.isEmpty()) {
+                int docId = Integer.MAX_VALUE;
+
+                for (PostingList.Cursor cursor : cursors) {
+                    docId = Math.min(docId, cursor.docId());
+                }
+
+                Document document = documentsById[docId];
+                double score = 0;
+
+                for (int i = cursors.size() - 1; i >= 0; i--) {
+                    PostingList.Cursor cursor = cursors.get(i);
+
+                    if (cursor.docId() != docId) {
+                        continue;
+                    }
+
+                    if (document != null) {
+                        int termFrequency = cursor.termFrequency();
+                        double norm = K1 * (1 - B + B * document.length() / averageLength);
+                        score += idfs.get(i) * termFrequency * (K1 + 1) / (termFrequency + norm);
+                    }
+
+                    if (!cursor.next()) {
+                        cursors.remove(i);
+                        idfs.remove(i);
+                    }
+                }
+
+                if (document == null) {
+                    continue;
+                }
+
+                totalHits++;
+
+                if (best.size() < wanted) {
+                    best.add(new Hit(document, score));
+                    continue;
+                }
+
+                Hit worst = best.peek();
+
+                if (score > worst.score() || score == worst.score() && document.postId() < worst.document().postId()) {
+                    best.poll();
+                    best.add(new Hit(document, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Hit[] ranked = new Hit[best.size()];
+
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll();
+        }
+
+        List<Hit> page = offset >= ranked.length
+                ? List.of()
+                : List.of(Arrays.copyOfRange(ranked, offset, ranked.length));
+
+        return new Result(page, totalHits);
+    }
+}
@@ -0,0 +1,213 @@
+package io.valentinsoare.bloggingengineapi.search;
+
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.dto.SearchHitDto;
+import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.response.SearchResponse;
+import io.valentinsoare.bloggingengineapi.utilities.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+
+/**
+ * In-memory full-text index of posts, filled from the database on startup and kept current by the
+ * post write paths. Changes are applied after their transaction commits; changes made while a rebuild
+ * is running are replayed on the rebuilt index before it replaces the live one.
+ */
+@Slf4j
+@Component
+public class PostSearchIndex {
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int SNIPPET_LEAD = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rebuildBatchSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean complete;
+
+    // non-null while a rebuild runs, guarded by this
+    private List<Consumer<InvertedIndex>> replayLog;
+
+    public PostSearchIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${app.search.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    public void index(Long postId, String title, String description, String content) {
+        TransactionHooks.afterCommit(() -> apply(target -> target.put(postId, title, description, content)));
+    }
+
+    public void index(PostDto postDto) {
+        index(postDto.getId(), postDto.getTitle(), postDto.getDescription(), postDto.getContent());
+    }
+
+    public void remove(Collection<Long> postIds) {
+        List<Long> removed = List.copyOf(postIds);
+        TransactionHooks.afterCommit(() -> apply(target -> removed.forEach(target::remove)));
+    }
+
+    private synchronized void apply(Consumer<InvertedIndex> change) {
+        change.accept(index);
+
+        if (replayLog != null) {
+            replayLog.add(change);
+        }
+    }
+
+    public SearchResponse search(String query, int pageNo, int pageSize) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+
+        if (terms.isEmpty()) {
+            throw new ResourceViolationException("Search query must contain at least one word of two or more characters.");
+        }
+
+        if (pageNo < 0 || pageSize < 1) {
+            throw new ResourceViolationException("Page number must be 0 or more and page size 1 or more.");
+        }
+
+        InvertedIndex.Result result = index.search(terms, pageNo * pageSize, pageSize);
+
+        List<SearchHitDto> hits = result.hits().stream()
+                .map(hit -> SearchHitDto.builder()
+                        .id(hit.document().postId())
+                        .title(hit.document().title())
+                        .score(hit.score())
+                        .snippet(snippet(hit.document(), terms))
+                        .build())
+                .toList();
+
+        int totalPages = (result.totalHits() + pageSize - 1) / pageSize;
+
+        return SearchResponse.builder()
+                .pageContent(hits)
+                .pageNo(pageNo)
+                .pageSize(pageSize)
+                .totalHits(result.totalHits())
+                .totalPages(totalPages)
+                .isLast(pageNo >= totalPages - 1)
+                .indexComplete(complete)
+                .build();
+    }
+
+    private static String snippet(InvertedIndex.Document document, Set<String> terms) {
+        for (String text : List.of(Objects.toString(document.contentStart(), ""), Objects.toString(document.description(), ""))) {
+            Matcher matcher = Tokenizer.WORD.matcher(text);
+
+            while (matcher.find()) {
+                String token = Tokenizer.normalize(matcher.group());
+
+                if (token != null && terms.contains(token)) {
+                    return window(text, matcher.start());
+                }
+            }
+        }
+
+        return window(Objects.toString(document.description(), ""), 0);
+    }
+
+    private static String window(String text, int matchStart) {
+        int start = Math.max(0, matchStart - SNIPPET_LEAD);
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+
+        if (start > 0) {
+            int wordStart = text.indexOf(' ', start);
+            start = wordStart < 0 || wordStart >= matchStart ? start : wordStart + 1;
+        }
+
+        if (end < text.length()) {
+            int wordEnd = text.lastIndexOf(' ', end);
+            end = wordEnd <= matchStart ? end : wordEnd;
+        }
+
+        return (start > 0 ? "..." : "") + text.substring(start, end).strip() + (end < text.length() ? "..." : "");
+    }
+
+    /**
+     * @return false if a rebuild is already running
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+
+        synchronized (this) {
+            replayLog = new ArrayList<>();
+        }
+
+        rebuilder.execute(this::runRebuild);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    private void runRebuild() {
+        InvertedIndex rebuilt = new InvertedIndex();
+        long[] afterId = {0};
+        long started = System.currentTimeMillis();
+
+        try {
+            int read;
+
+            do {
+                read = jdbcTemplate.query(
+                        "SELECT id, title, description, content FROM post WHERE id > ? ORDER BY id LIMIT ?",
+                        rs -> {
+                            int rows = 0;
+
+                            while (rs.next()) {
+                                afterId[0] = rs.getLong("id");
+                                rebuilt.put(afterId[0], rs.getString("title"), rs.getString("description"), rs.getString("content"));
+                                rows++;
+                            }
+
+                            return rows;
+                        },
+                        afterId[0], rebuildBatchSize);
+            } while (read == rebuildBatchSize);
+
+            synchronized (this) {
+                replayLog.forEach(change -> change.accept(rebuilt));
+                replayLog = null;
+                index = rebuilt;
+                complete = true;
+            }
+
+            log.info("Search index rebuilt with {} posts in {} ms.", rebuilt.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            synchronized (this) {
+                replayLog = null;
+            }
+
+            log.error("Search index rebuild failed, keeping the current index: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
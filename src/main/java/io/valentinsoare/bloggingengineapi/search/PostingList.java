@@ -0,0 +1,142 @@
+package io.valentinsoare.bloggingengineapi.search;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Postings of one term as varint-encoded (document id delta, term frequency) pairs in ascending document
+ * id order. Document ids only grow, so a posting is always appended in place; a removed document stays
+ * in the list as a tombstone until dead postings outnumber live ones and the list is compacted.
+ */
+final class PostingList {
+    private static final int MIN_DEAD_TO_COMPACT = 16;
+
+    /**
+     * Forward-only reader over the postings, including the dead ones.
+     */
+    static final class Cursor {
+        private final byte[] data;
+        private final int length;
+        private int position;
+        private int docId;
+        private int termFrequency;
+
+        private Cursor(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+
+            docId += readVarInt();
+            termFrequency = readVarInt();
+            return true;
+        }
+
+        int docId() {
+            return docId;
+        }
+
+        int termFrequency() {
+            return termFrequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            return value;
+        }
+    }
+
+    private final String term;
+    private byte[] data = new byte[16];
+    private int length;
+    private int size;
+    private int live;
+    private int lastDocId;
+
+    PostingList(String term) {
+        this.term = term;
+    }
+
+    String term() {
+        return term;
+    }
+
+    /**
+     * Postings of documents that are still indexed.
+     */
+    int liveSize() {
+        return live;
+    }
+
+    Cursor cursor() {
+        return new Cursor(data, length);
+    }
+
+    void append(int docId, int termFrequency) {
+        if (size > 0 && docId <= lastDocId) {
+            throw new IllegalArgumentException("Document id " + docId + " is not above the last one, " + lastDocId + ".");
+        }
+
+        writeVarInt(docId - lastDocId);
+        writeVarInt(termFrequency);
+        lastDocId = docId;
+        size++;
+        live++;
+    }
+
+    /**
+     * Counts one of the postings as dead and, once dead postings outnumber the live ones, drops every
+     * posting whose document is no longer live. Each compaction is paid for by the removals before it.
+     */
+    void markDeleted(IntPredicate isLive) {
+        live--;
+
+        int dead = size - live;
+
+        if (dead >= MIN_DEAD_TO_COMPACT && dead > live) {
+            compact(isLive);
+        }
+    }
+
+    private void compact(IntPredicate isLive) {
+        Cursor cursor = cursor();
+
+        data = new byte[Math.max(16, length / 2)];
+        length = 0;
+        size = 0;
+        live = 0;
+        lastDocId = 0;
+
+        while (cursor.next()) {
+            if (isLive.test(cursor.docId())) {
+                append(cursor.docId(), cursor.termFrequency());
+            }
+        }
+    }
+
+    private void writeVarInt(int value) {
+        if (data.length - length < 10) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        data[length++] = (byte) value;
+    }
+}
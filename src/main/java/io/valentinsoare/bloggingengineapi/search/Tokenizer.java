@@ -0,0 +1,55 @@
+package io.valentinsoare.bloggingengineapi.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lower-cased letter/digit runs, dropping one-character tokens and common English stop words.
+ */
+public final class Tokenizer {
+    static final Pattern WORD = Pattern.compile("[\\p{L}\\p{Nd}]+");
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with"
+    );
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        Matcher matcher = WORD.matcher(text);
+
+        while (matcher.find()) {
+            String token = normalize(matcher.group());
+
+            if (token != null) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    static String normalize(String word) {
+        String token = word.toLowerCase(Locale.ROOT);
+
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return null;
+        }
+
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+}
@@ -1,29 +1,54 @@
 package io.valentinsoare.bloggingengineapi.security;
 
+import io.jsonwebtoken.Claims;
 import io.valentinsoare.bloggingengineapi.exception.ApiAuthException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider jwtTokenProvider;
-    private UserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    private final boolean rolesFromToken;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   UserDetailsCache userDetailsCache,
+                                   @Value("${app.jwt.roles-from-token:true}") boolean rolesFromToken) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.rolesFromToken = rolesFromToken;
+    }
+
+    // by default the roles in the token are trusted and the user lookup is skipped, so a revoked role keeps
+    // working until the token expires; app.jwt.roles-from-token=false re-reads roles through the short-lived
+    // user details cache instead, so a revoked role stops working within its ttl
+    private UserDetails resolvePrincipal(Claims claims) {
+        String usernameFromToken = claims.getSubject();
+        Collection<GrantedAuthority> authorities = jwtTokenProvider.getAuthoritiesFromClaims(claims);
+
+        if (rolesFromToken && authorities != null) {
+            return User.withUsername(usernameFromToken)
+                    .password("")
+                    .authorities(authorities)
+                    .build();
+        }
+
+        return userDetailsCache.loadUserByUsername(usernameFromToken);
     }
 
     private String getTokenFromRequest(HttpServletRequest request) {
@@ -42,9 +67,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException, ApiAuthException {
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token, request)) {
-            String usernameFromToken = jwtTokenProvider.getUsernameFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(usernameFromToken);
+        if (StringUtils.hasText(token)) {
+            Claims claims = jwtTokenProvider.verifyToken(token, request);
+            UserDetails userDetails = resolvePrincipal(claims);
 
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -1,78 +1,131 @@
 package io.valentinsoare.bloggingengineapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.valentinsoare.bloggingengineapi.exception.ApiAuthException;
-import io.valentinsoare.bloggingengineapi.exception.BloggingEngineException;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 @Component
-@NoArgsConstructor
 public class JwtTokenProvider {
-    @Value("${app.jwt.secret}")
+    public static final String ROLES_CLAIM = "roles";
+
     @NotBlank(message = "Secret key is mandatory!")
     @Size(min = 32, max = 64, message = "Secret key must be between 32 and 64 characters!")
-    private String secret;
+    private final String secret;
 
-    @Value("${app.jwt.expiration}")
     @NotBlank(message = "Expiration length is mandatory!")
     @Min(value = 86400000, message = "Expiration length must be greater than 1 day in milliseconds!")
-    private long expirationDate;
+    private final long expirationDate;
+
+    private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String secret,
+                            @Value("${app.jwt.expiration}") long expirationDate,
+                            @Value("${app.jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.secret = secret;
+        this.expirationDate = expirationDate;
+        this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+
+        // entries live exactly as long as the token they were verified from
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        Duration untilExpiration = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+                        return untilExpiration.isNegative() ? 0 : untilExpiration.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(Authentication authentication) {
         String username = authentication.getName();
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
         Date currentDate = new Date();
         Date expirationDate = new Date(currentDate.getTime() + this.expirationDate);
 
         return Jwts.builder()
                 .subject(username)
+                .claim(ROLES_CLAIM, roles)
                 .issuedAt(currentDate)
                 .expiration(expirationDate)
-                .signWith(getSecretKey())
+                .signWith(secretKey)
                 .compact();
     }
 
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(this.secret));
+    private String digestOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
+    public Claims verifyToken(String token, HttpServletRequest request) throws ApiAuthException {
+        String digest = digestOf(token);
+        Claims cachedClaims = verifiedTokens.getIfPresent(digest);
+
+        if (cachedClaims != null) {
+            return cachedClaims;
+        }
 
-    public boolean validateToken(String token, HttpServletRequest request) throws ApiAuthException {
         try {
-            Jwts.parser()
-                    .verifyWith(getSecretKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getExpiration();
-
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+
+            return claims;
         } catch (MalformedJwtException e) {
             request.setAttribute("exception", "Invalid JWT Token");
             throw new ApiAuthException("validateToken", "Invalid JWT Token", Map.of("token", token));
@@ -87,4 +140,28 @@ public class JwtTokenProvider {
             throw new ApiAuthException("validateToken", "JWT claims string is empty", Map.of("token", token));
         }
     }
+
+    // null for tokens issued before roles were embedded
+    public Collection<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+
+        if (roles == null) {
+            return null;
+        }
+
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+
+    public String getUsernameFromToken(String token) {
+        return jwtParser.parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    public boolean validateToken(String token, HttpServletRequest request) throws ApiAuthException {
+        verifyToken(token, request);
+        return true;
+    }
 }
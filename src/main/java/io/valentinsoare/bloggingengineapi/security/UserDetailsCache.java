@@ -0,0 +1,44 @@
+package io.valentinsoare.bloggingengineapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of the user details the JWT filter loads when roles are not taken from the token.
+ * The API has no endpoint that changes a user's roles, so roles changed in the database apply once the
+ * entry expires, after app.security.user-details-cache.ttl-seconds. A write path that changes roles
+ * should call evict after its transaction commits.
+ */
+@Component
+public class UserDetailsCache {
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> userDetailsByUsername;
+
+    public UserDetailsCache(UserDetailsService userDetailsService,
+                            @Value("${app.security.user-details-cache.max-size:10000}") long maxSize,
+                            @Value("${app.security.user-details-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.userDetailsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserDetails loadUserByUsername(String username) {
+        return userDetailsByUsername.get(username, userDetailsService::loadUserByUsername);
+    }
+
+    public void evict(String username) {
+        userDetailsByUsername.invalidate(username);
+    }
+
+    public void clear() {
+        userDetailsByUsername.invalidateAll();
+    }
+}
@@ -3,6 +3,7 @@ package io.valentinsoare.bloggingengineapi.service;
 import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
 import io.valentinsoare.bloggingengineapi.dto.PostDto;
 import io.valentinsoare.bloggingengineapi.response.AuthorResponse;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.PostResponse;
 
 import java.util.List;
@@ -31,6 +32,7 @@ public interface AuthorService {
     void deleteAuthorById(Long id);
     void deleteAuthorByEmail(String email);
     void deleteAuthorsPostsList(Long id);
+    BulkDeleteJobResponse deleteAllAuthors();
 
     Long countAuthors();
     Long countAuthorsByFirstName(String firstName);
@@ -1,18 +1,25 @@
 package io.valentinsoare.bloggingengineapi.service;
 
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
 import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
 import io.valentinsoare.bloggingengineapi.dto.PostDto;
 import io.valentinsoare.bloggingengineapi.entity.Author;
 import io.valentinsoare.bloggingengineapi.exception.BloggingEngineException;
 import io.valentinsoare.bloggingengineapi.exception.NoElementsException;
 import io.valentinsoare.bloggingengineapi.exception.ResourceNotFoundException;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
+import io.valentinsoare.bloggingengineapi.mapper.AuthorMapper;
+import io.valentinsoare.bloggingengineapi.mapper.PostMapper;
+import io.valentinsoare.bloggingengineapi.purge.BulkDeleteEngine;
 import io.valentinsoare.bloggingengineapi.repository.AuthorRepository;
 import io.valentinsoare.bloggingengineapi.repository.PostRepository;
 import io.valentinsoare.bloggingengineapi.response.AuthorResponse;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.PostResponse;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestionType;
 import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,24 +32,39 @@ import java.util.*;
 public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
     private final PostRepository postRepository;
-    private final ModelMapper modelMapper;
+    private final AuthorMapper authorMapper;
+    private final PostMapper postMapper;
     private final AuxiliaryMethods auxiliaryMethods;
+    private final BulkDeleteEngine bulkDeleteEngine;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final PostCache postCache;
 
     public AuthorServiceImpl(AuthorRepository authorRepository,
-                             ModelMapper modelMapper,
-                             PostRepository postRepository) {
+                             AuthorMapper authorMapper,
+                             PostMapper postMapper,
+                             PostRepository postRepository,
+                             BulkDeleteEngine bulkDeleteEngine,
+                             SuggestIndex suggestIndex,
+                             FacetIndex facetIndex,
+                             PostCache postCache) {
         this.authorRepository = authorRepository;
-        this.modelMapper = modelMapper;
+        this.authorMapper = authorMapper;
+        this.postMapper = postMapper;
         this.auxiliaryMethods = AuxiliaryMethods.getInstance();
         this.postRepository = postRepository;
+        this.bulkDeleteEngine = bulkDeleteEngine;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.postCache = postCache;
     }
 
     private AuthorDto mapToDTO(Author author) {
-        return modelMapper.map(author, AuthorDto.class);
+        return authorMapper.mapToDTO(author);
     }
 
     private Author mapToEntity(AuthorDto authorDto) {
-        return modelMapper.map(authorDto, Author.class);
+        return authorMapper.mapToEntity(authorDto);
     }
 
     private AuthorResponse createAndReturnAuthorResponse(Page<Author> pageWithAuthors) {
@@ -79,10 +101,10 @@ public class AuthorServiceImpl implements AuthorService {
                         () -> new ResourceNotFoundException("author", Map.of("email", email))
                 );
 
-        AuthorDto newAuthorFound = modelMapper.map(foundAuthor, AuthorDto.class);
+        AuthorDto newAuthorFound = mapToDTO(foundAuthor);
 
         foundAuthor.getAllPosts().forEach(post -> {
-            PostDto newPost = modelMapper.map(post, PostDto.class);
+            PostDto newPost = postMapper.mapToDTO(post);
             newAuthorFound.getPostsFromAuthor().add(newPost);
         });
 
@@ -120,6 +142,11 @@ public class AuthorServiceImpl implements AuthorService {
 
     }
 
+    @Override
+    public BulkDeleteJobResponse deleteAllAuthors() {
+        return bulkDeleteEngine.deleteAuthors("all authors", "SELECT id FROM author", Map.of());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AuthorResponse getAuthorsByFirstName(String firstName, int pageNo, int pageSize, String sortBy, String sortDir) {
@@ -176,7 +203,7 @@ public class AuthorServiceImpl implements AuthorService {
     @Override
     @Transactional
     public AuthorDto createAuthor(AuthorDto authorDto) {
-        Author author = modelMapper.map(authorDto, Author.class);
+        Author author = mapToEntity(authorDto);
         String emailToBeSearch = author.getEmail();
 
         authorRepository.getAuthorByEmail(author.getEmail())
@@ -190,7 +217,9 @@ public class AuthorServiceImpl implements AuthorService {
             throw new BloggingEngineException("author", "error creating", Map.of("author", authorDto.toString()));
         }
 
-        return modelMapper.map(author, AuthorDto.class);
+        suggestIndex.putAuthor(author.getId(), author.getFirstName(), author.getLastName());
+        facetIndex.putAuthor(author.getId(), author.getFirstName(), author.getLastName());
+        return mapToDTO(author);
     }
 
     @Override
@@ -216,7 +245,11 @@ public class AuthorServiceImpl implements AuthorService {
 
         try {
             log.info("Deleting author with id {}.", id);
+            // cached posts embed their author names
+            postRepository.findPostIdsByAuthorId(id).forEach(postCache::evict);
             authorRepository.delete(author);
+            suggestIndex.remove(SuggestionType.AUTHOR, List.of(id));
+            facetIndex.removeAuthors(List.of(id));
         } catch (Exception e) {
             log.error("Error deleting author with id {}.", id);
             throw new BloggingEngineException("author", "error deleting", Map.of("id", id.toString()));
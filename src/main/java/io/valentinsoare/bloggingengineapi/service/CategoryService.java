@@ -1,7 +1,9 @@
 package io.valentinsoare.bloggingengineapi.service;
 
 import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.CategoryResponse;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
 
 import java.util.List;
 
@@ -12,8 +14,9 @@ public interface CategoryService {
     CategoryDto getCategoryByName(String name);
     CategoryDto addCategory(CategoryDto category);
     void deleteCategory(Long id);
-    CategoryDto updateCategory(Long id, CategoryDto category);
+    CategoryDto updateCategory(Long id, CategoryDto category, Long expectedVersion);
     CategoryResponse getAllCategories(int pageNo, int pageSize, String sortBy, String sortDir);
+    EntityVersion getCategoriesVersion();
     long countAllCategories();
-    void deleteAllCategories();
+    BulkDeleteJobResponse deleteAllCategories();
 }
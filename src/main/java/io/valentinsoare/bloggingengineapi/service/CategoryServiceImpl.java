@@ -1,16 +1,26 @@
 package io.valentinsoare.bloggingengineapi.service;
 
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
 import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
 import io.valentinsoare.bloggingengineapi.entity.Category;
 import io.valentinsoare.bloggingengineapi.entity.Post;
+import io.valentinsoare.bloggingengineapi.entity.TableVersion;
 import io.valentinsoare.bloggingengineapi.exception.NoElementsException;
 import io.valentinsoare.bloggingengineapi.exception.ResourceAlreadyExists;
 import io.valentinsoare.bloggingengineapi.exception.ResourceNotFoundException;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
+import io.valentinsoare.bloggingengineapi.mapper.CategoryMapper;
+import io.valentinsoare.bloggingengineapi.purge.BulkDeleteEngine;
 import io.valentinsoare.bloggingengineapi.repository.CategoryRepository;
+import io.valentinsoare.bloggingengineapi.repository.PostRepository;
+import io.valentinsoare.bloggingengineapi.repository.TableVersionRepository;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.CategoryResponse;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestionType;
 import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,28 +28,52 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Slf4j
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
+    private final TableVersionRepository tableVersionRepository;
+    private final PostRepository postRepository;
+    private final PostCache postCache;
+    private final CategoryMapper categoryMapper;
     private final AuxiliaryMethods auxiliaryMethods;
+    private final BulkDeleteEngine bulkDeleteEngine;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
 
     public CategoryServiceImpl(CategoryRepository categoryRepository,
-                               ModelMapper modelMapper) {
+                               TableVersionRepository tableVersionRepository,
+                               PostRepository postRepository,
+                               PostCache postCache,
+                               CategoryMapper categoryMapper,
+                               BulkDeleteEngine bulkDeleteEngine,
+                               SuggestIndex suggestIndex,
+                               FacetIndex facetIndex) {
         this.categoryRepository = categoryRepository;
-        this.modelMapper = modelMapper;
+        this.tableVersionRepository = tableVersionRepository;
+        this.postRepository = postRepository;
+        this.postCache = postCache;
+        this.categoryMapper = categoryMapper;
+        this.bulkDeleteEngine = bulkDeleteEngine;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
         this.auxiliaryMethods = AuxiliaryMethods.getInstance();
     }
 
     private CategoryDto mapToDTO(Category category) {
-        return modelMapper.map(category, CategoryDto.class);
+        return categoryMapper.mapToDTO(category);
     }
 
     private Category mapToEntity(CategoryDto categoryDto) {
-        return modelMapper.map(categoryDto, Category.class);
+        return categoryMapper.mapToEntity(categoryDto);
+    }
+
+    // cached posts embed their category names
+    private void evictPostsOfCategory(Long categoryId) {
+        postRepository.findPostIdsByCategoryId(categoryId).forEach(postCache::evict);
     }
 
     @Override
@@ -55,7 +89,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         if (!byIdIn.isEmpty()) {
             return byIdIn.stream()
-                    .map(category -> modelMapper.map(category, CategoryDto.class))
+                    .map(this::mapToDTO)
                     .toList();
         }
 
@@ -68,7 +102,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category foundCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("category", Map.of("id", id.toString())));
 
-        return modelMapper.map(foundCategory, CategoryDto.class);
+        return mapToDTO(foundCategory);
     }
 
     @Override
@@ -77,13 +111,13 @@ public class CategoryServiceImpl implements CategoryService {
         Category foundCategory = categoryRepository.findCategoryByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("category", Map.of("name", name)));
 
-        return modelMapper.map(foundCategory, CategoryDto.class);
+        return mapToDTO(foundCategory);
     }
 
     @Override
     @Transactional
     public CategoryDto addCategory(CategoryDto categoryDto) {
-        Category newCategory = modelMapper.map(categoryDto, Category.class);
+        Category newCategory = mapToEntity(categoryDto);
 
         categoryRepository.findCategoryByName(newCategory.getName())
                 .ifPresent(category -> {
@@ -91,7 +125,10 @@ public class CategoryServiceImpl implements CategoryService {
                 });
 
         Category savedCategory = categoryRepository.save(newCategory);
-        return modelMapper.map(savedCategory, CategoryDto.class);
+        tableVersionRepository.bump(TableVersion.CATEGORY);
+        suggestIndex.putCategory(savedCategory.getId(), savedCategory.getName());
+        facetIndex.putCategory(savedCategory.getId(), savedCategory.getName());
+        return mapToDTO(savedCategory);
     }
 
     @Override
@@ -100,22 +137,43 @@ public class CategoryServiceImpl implements CategoryService {
         Category foundCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("category", Map.of("id", id.toString())));
 
+        evictPostsOfCategory(id);
         categoryRepository.delete(foundCategory);
+        tableVersionRepository.bump(TableVersion.CATEGORY);
+        suggestIndex.remove(SuggestionType.CATEGORY, List.of(id));
+        facetIndex.removeCategories(List.of(id));
     }
 
     @Override
     @Transactional
-    public CategoryDto updateCategory(Long id, CategoryDto category) {
+    public CategoryDto updateCategory(Long id, CategoryDto category, Long expectedVersion) {
         Category foundCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("category", Map.of("id", id.toString())));
 
+        auxiliaryMethods.checkVersion("category", expectedVersion, foundCategory.getVersion());
+        String previousName = foundCategory.getName();
+
         foundCategory.setName(auxiliaryMethods.updateIfPresent(category.getName(), foundCategory.getName()))
                 .setDescription(auxiliaryMethods.updateIfPresent(category.getDescription(), foundCategory.getDescription()))
                 .setPosts((Set<Post>) auxiliaryMethods.updateIfPresent(category.getAllPostsWithCategory(), foundCategory.getPosts()));
 
-        Category savedCategory = categoryRepository.save(foundCategory);
+        Category savedCategory = categoryRepository.saveAndFlush(foundCategory);
+        tableVersionRepository.bump(TableVersion.CATEGORY);
+        suggestIndex.putCategory(savedCategory.getId(), savedCategory.getName());
+        facetIndex.putCategory(savedCategory.getId(), savedCategory.getName());
+
+        if (!Objects.equals(previousName, savedCategory.getName())) {
+            evictPostsOfCategory(id);
+        }
 
-        return modelMapper.map(savedCategory, CategoryDto.class);
+        return mapToDTO(savedCategory);
+    }
+
+    @Override
+    public EntityVersion getCategoriesVersion() {
+        return tableVersionRepository.findVersionByTableName(TableVersion.CATEGORY)
+                .map(EntityVersion::of)
+                .orElseGet(() -> EntityVersion.of(0L, null));
     }
 
     @Override
@@ -156,8 +214,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Transactional
-    public void deleteAllCategories() {
-        categoryRepository.deleteAll();
+    public BulkDeleteJobResponse deleteAllCategories() {
+        return bulkDeleteEngine.deleteCategories("all categories", "SELECT id FROM category", Map.of());
     }
 }
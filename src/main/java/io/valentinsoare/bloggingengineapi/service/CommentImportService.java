@@ -0,0 +1,9 @@
+package io.valentinsoare.bloggingengineapi.service;
+
+import io.valentinsoare.bloggingengineapi.response.BulkResponse;
+
+import java.io.InputStream;
+
+public interface CommentImportService {
+    BulkResponse importComments(InputStream commentsAsJson);
+}
@@ -0,0 +1,195 @@
+package io.valentinsoare.bloggingengineapi.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
+import io.valentinsoare.bloggingengineapi.dto.CommentDto;
+import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.repository.CommentJdbcRepository;
+import io.valentinsoare.bloggingengineapi.response.BulkItemResult;
+import io.valentinsoare.bloggingengineapi.response.BulkResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts either a JSON array or newline-delimited JSON objects. Only one chunk is held in memory,
+ * and only failed items are reported back, up to app.bulk.max-reported-failures.
+ */
+@Slf4j
+@Service
+public class CommentImportServiceImpl implements CommentImportService {
+    private final CommentJdbcRepository commentJdbcRepository;
+    private final PostCache postCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public CommentImportServiceImpl(CommentJdbcRepository commentJdbcRepository,
+                                    PostCache postCache,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.bulk.chunk-size:500}") int chunkSize,
+                                    @Value("${app.bulk.max-reported-failures:1000}") int maxReportedFailures) {
+        this.commentJdbcRepository = commentJdbcRepository;
+        this.postCache = postCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    private static final class Progress {
+        private int received;
+        private int failed;
+        private final List<BulkItemResult> failures = new ArrayList<>();
+    }
+
+    private void fail(Progress progress, int index, String message) {
+        progress.failed++;
+
+        if (progress.failures.size() < maxReportedFailures) {
+            progress.failures.add(BulkItemResult.builder()
+                    .index(index)
+                    .status(BulkItemResult.Status.FAILED)
+                    .message(message)
+                    .build());
+        }
+    }
+
+    private String validate(CommentDto commentDto) {
+        Set<ConstraintViolation<CommentDto>> violations = validator.validate(commentDto);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(v -> String.format("%s: %s", v.getPropertyPath(), v.getMessage()))
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Set<Long> writeChunk(Map<Integer, CommentDto> chunk, Progress progress) {
+        Set<Long> postIds = chunk.values().stream()
+                .map(CommentDto::getPostId)
+                .collect(Collectors.toSet());
+
+        Set<Long> existingPostIds = commentJdbcRepository.findExistingPostIds(postIds);
+        List<CommentDto> accepted = new ArrayList<>(chunk.size());
+
+        chunk.forEach((index, commentDto) -> {
+            if (existingPostIds.contains(commentDto.getPostId())) {
+                accepted.add(commentDto);
+            } else {
+                fail(progress, index, String.format("No post found with id %d.", commentDto.getPostId()));
+            }
+        });
+
+        Map<Long, Long> addedByPostId = accepted.stream()
+                .collect(Collectors.groupingBy(CommentDto::getPostId, Collectors.counting()));
+
+        commentJdbcRepository.insertComments(accepted);
+        commentJdbcRepository.addToCommentCounts(addedByPostId);
+        return addedByPostId.keySet();
+    }
+
+    private void flushChunk(Map<Integer, CommentDto> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        int failedBefore = progress.failed;
+        int reportedBefore = progress.failures.size();
+
+        try {
+            Set<Long> touchedPostIds = chunkTransaction.execute(status -> writeChunk(chunk, progress));
+            Objects.requireNonNull(touchedPostIds).forEach(postCache::evict);
+        } catch (Exception e) {
+            log.error("Bulk comment import chunk of {} items rolled back: {}", chunk.size(), e.getMessage());
+
+            progress.failed = failedBefore;
+            progress.failures.subList(reportedBefore, progress.failures.size()).clear();
+            chunk.keySet().forEach(index -> fail(progress, index, e.getLocalizedMessage()));
+        }
+
+        chunk.clear();
+    }
+
+    @Override
+    public BulkResponse importComments(InputStream commentsAsJson) {
+        Progress progress = new Progress();
+        Map<Integer, CommentDto> chunk = new LinkedHashMap<>();
+
+        try (JsonParser parser = objectMapper.createParser(commentsAsJson)) {
+            JsonToken first = parser.nextToken();
+            boolean isArray = first == JsonToken.START_ARRAY;
+
+            if (!isArray && first != JsonToken.START_OBJECT) {
+                throw new ResourceViolationException("Bulk import expects a JSON array or newline-delimited JSON comments.");
+            }
+
+            JsonToken token = isArray ? null : first;
+
+            while (true) {
+                int index = progress.received;
+
+                try {
+                    token = token != null ? token : parser.nextToken();
+
+                    if (token != JsonToken.START_OBJECT) {
+                        break;
+                    }
+
+                    CommentDto commentDto = parser.readValueAs(CommentDto.class);
+                    token = null;
+                    progress.received++;
+
+                    String violations = validate(commentDto);
+
+                    if (violations != null) {
+                        fail(progress, index, violations);
+                    } else {
+                        chunk.put(index, commentDto);
+                    }
+                } catch (JsonProcessingException e) {
+                    progress.received++;
+                    fail(progress, index, String.format("Malformed JSON, import stopped: %s", e.getOriginalMessage()));
+                    break;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, progress);
+                }
+            }
+
+            flushChunk(chunk, progress);
+        } catch (IOException e) {
+            throw new ResourceViolationException(e.getLocalizedMessage());
+        }
+
+        progress.failures.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+
+        return BulkResponse.builder()
+                .received(progress.received)
+                .succeeded(progress.received - progress.failed)
+                .failed(progress.failed)
+                .results(progress.failures)
+                .build();
+    }
+}
@@ -1,21 +1,30 @@
 package io.valentinsoare.bloggingengineapi.service;
 
+import io.valentinsoare.bloggingengineapi.buffer.CommentWriteBuffer;
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
 import io.valentinsoare.bloggingengineapi.dto.CommentDto;
 import io.valentinsoare.bloggingengineapi.entity.Comment;
 import io.valentinsoare.bloggingengineapi.entity.Post;
 import io.valentinsoare.bloggingengineapi.exception.ResourceNotFoundException;
 import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.exception.TooManyRequestsException;
+import io.valentinsoare.bloggingengineapi.mapper.CommentMapper;
+import io.valentinsoare.bloggingengineapi.purge.BulkDeleteEngine;
 import io.valentinsoare.bloggingengineapi.repository.CommentRepository;
 import io.valentinsoare.bloggingengineapi.repository.PostRepository;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
 import io.valentinsoare.bloggingengineapi.response.CommentResponse;
 import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,23 +36,32 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final AuxiliaryMethods auxiliaryMethodsComment;
-    private final ModelMapper modelMapper;
+    private final CommentMapper commentMapper;
+    private final PostCache postCache;
+    private final ObjectProvider<CommentWriteBuffer> commentWriteBuffer;
+    private final BulkDeleteEngine bulkDeleteEngine;
 
     public CommentServiceImpl(CommentRepository commentRepository,
                               PostRepository postRepository,
-                              ModelMapper modelMapper) {
+                              CommentMapper commentMapper,
+                              PostCache postCache,
+                              ObjectProvider<CommentWriteBuffer> commentWriteBuffer,
+                              BulkDeleteEngine bulkDeleteEngine) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.auxiliaryMethodsComment = AuxiliaryMethods.getInstance();
-        this.modelMapper = modelMapper;
+        this.commentMapper = commentMapper;
+        this.postCache = postCache;
+        this.commentWriteBuffer = commentWriteBuffer;
+        this.bulkDeleteEngine = bulkDeleteEngine;
     }
 
     private CommentDto mapToDTO(Comment comment) {
-        return modelMapper.map(comment, CommentDto.class);
+        return commentMapper.mapToDTO(comment);
     }
 
     private Comment mapToEntity(CommentDto commentDto) {
-        return modelMapper.map(commentDto, Comment.class);
+        return commentMapper.mapToEntity(commentDto);
     }
 
     private Comment getComment(Long commentId, Long postId) {
@@ -91,6 +109,15 @@ public class CommentServiceImpl implements CommentService {
                 .build();
     }
 
+    // every comment write bumps its post's version, so the post version also tags its comment pages
+    @Override
+    public EntityVersion getCommentsVersion(Long postId) {
+        return postRepository.findVersionById(postId)
+                .map(EntityVersion::of)
+                .orElseThrow(() -> new ResourceNotFoundException("post",
+                        new HashMap<>(Map.of("id", String.valueOf(postId)))));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CommentDto getCommentByIdAndPostId(Long commentId, Long postId) {
@@ -111,16 +138,39 @@ public class CommentServiceImpl implements CommentService {
 
         try {
             Comment saveComment = commentRepository.save(newComment);
+            postRepository.addToCommentCount(postId, 1);
+            postCache.evict(postId);
             return mapToDTO(saveComment);
         } catch (Exception e) {
             throw new ResourceViolationException(e.getLocalizedMessage());
         }
     }
 
+    @Override
+    public void acceptComment(Long postId, CommentDto commentDto) {
+        CommentWriteBuffer buffer = commentWriteBuffer.getIfAvailable();
+
+        if (buffer == null) {
+            throw new ResourceViolationException("Asynchronous comment acceptance is disabled.");
+        }
+
+        // the flush drops comments of missing posts, so check here to answer 404 like createComment does
+        if (postCache.getById(postId).isEmpty() && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(postId))));
+        }
+
+        commentDto.setPostId(postId);
+
+        if (!buffer.offer(commentDto)) {
+            throw new TooManyRequestsException("Comment buffer is full, retry later.");
+        }
+    }
+
     @Override
     @Transactional
-    public CommentDto updateCommentByIdAndPostId(Long commentId, Long postId, CommentDto commentDto) {
+    public CommentDto updateCommentByIdAndPostId(Long commentId, Long postId, CommentDto commentDto, Long expectedVersion) {
         Comment commentFound = getComment(commentId, postId);
+        auxiliaryMethodsComment.checkVersion("comment", expectedVersion, commentFound.getVersion());
 
         commentFound.setName(commentDto.getName())
                 .setEmail(commentDto.getEmail())
@@ -130,11 +180,16 @@ public class CommentServiceImpl implements CommentService {
         Comment savedComment;
 
         try {
-            savedComment = commentRepository.save(commentFound);
+            savedComment = commentRepository.saveAndFlush(commentFound);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResourceViolationException(e.getLocalizedMessage());
         }
 
+        postRepository.touchPosts(List.of(postId), Instant.now());
+        postCache.evict(postId);
+
         return mapToDTO(savedComment);
     }
 
@@ -145,6 +200,8 @@ public class CommentServiceImpl implements CommentService {
 
         commentFound.getPost().removeComment(commentFound);
         commentRepository.delete(commentFound);
+        postRepository.addToCommentCount(postId, -1);
+        postCache.evict(postId);
     }
 
     @Override
@@ -153,13 +210,22 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countAllCommentsByPostId(Long postId) {
-        return 0L;
+        return postRepository.findCommentCountById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("post",
+                        new HashMap<>(Map.of("id", String.valueOf(postId)))));
     }
 
     @Override
-    public void deleteAllCommentsByPostId(Long postId) {
+    @Transactional(readOnly = true)
+    public BulkDeleteJobResponse deleteAllCommentsByPostId(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(postId))));
+        }
 
+        return bulkDeleteEngine.deleteComments("comments by post id: %s".formatted(postId),
+                "SELECT id FROM comment WHERE post_id = :postId", Map.of("postId", postId));
     }
 
     @Override
@@ -173,8 +239,9 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public void deleteAllCommentsByEmail(String email) {
-
+    public BulkDeleteJobResponse deleteAllCommentsByEmail(String email) {
+        return bulkDeleteEngine.deleteComments("comments by email: %s".formatted(email),
+                "SELECT id FROM comment WHERE email = :email", Map.of("email", email));
     }
 
     @Override
@@ -188,7 +255,8 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public void deleteAllCommentsByName(String name) {
-
+    public BulkDeleteJobResponse deleteAllCommentsByName(String name) {
+        return bulkDeleteEngine.deleteComments("comments by name: %s".formatted(name),
+                "SELECT id FROM comment WHERE name = :name", Map.of("name", name));
     }
 }
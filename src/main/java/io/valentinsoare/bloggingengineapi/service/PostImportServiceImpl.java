@@ -0,0 +1,247 @@
+package io.valentinsoare.bloggingengineapi.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
+import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
+import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.repository.PostJdbcRepository;
+import io.valentinsoare.bloggingengineapi.response.BulkItemResult;
+import io.valentinsoare.bloggingengineapi.response.BulkResponse;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
+import io.valentinsoare.bloggingengineapi.search.PostSearchIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class PostImportServiceImpl implements PostImportService {
+    private final PostJdbcRepository postJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PostSearchIndex postSearchIndex;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public PostImportServiceImpl(PostJdbcRepository postJdbcRepository,
+                                 PostSearchIndex postSearchIndex,
+                                 SuggestIndex suggestIndex,
+                                 FacetIndex facetIndex,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.postJdbcRepository = postJdbcRepository;
+        this.postSearchIndex = postSearchIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    private static BulkItemResult failed(int index, String message) {
+        return BulkItemResult.builder()
+                .index(index)
+                .status(BulkItemResult.Status.FAILED)
+                .message(message)
+                .build();
+    }
+
+    private static <T> Set<String> collectKeys(Collection<PostDto> posts,
+                                               Function<PostDto, Set<T>> items,
+                                               Function<T, String> key) {
+        return posts.stream()
+                .map(items)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .map(key)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Set<Long> resolveIds(Set<T> items, Function<T, String> key, Map<String, Long> idsByKey) {
+        if (items == null) {
+            return Collections.emptySet();
+        }
+
+        return items.stream()
+                .filter(Objects::nonNull)
+                .map(key)
+                .filter(Objects::nonNull)
+                .map(idsByKey::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private String validate(PostDto postDto) {
+        Set<ConstraintViolation<PostDto>> violations = validator.validate(postDto);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(v -> String.format("%s: %s", v.getPropertyPath(), v.getMessage()))
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private List<BulkItemResult> writeChunk(Map<Integer, PostDto> chunk) {
+        Set<String> categoryNames = collectKeys(chunk.values(), PostDto::getCategories, CategoryDto::getName);
+        Set<String> authorEmails = collectKeys(chunk.values(), PostDto::getAuthors, AuthorDto::getEmail);
+
+        Set<String> titles = chunk.values().stream()
+                .map(PostDto::getTitle)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> categoryIds = postJdbcRepository.findCategoryIdsByNames(categoryNames);
+        Map<String, Long> authorIds = postJdbcRepository.findAuthorIdsByEmails(authorEmails);
+        Set<String> takenTitles = new HashSet<>(postJdbcRepository.findPostIdsByTitles(titles).keySet());
+
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<PostDto> acceptedPosts = new ArrayList<>();
+        List<Set<Long>> acceptedCategoryIds = new ArrayList<>();
+        List<Set<Long>> acceptedAuthorIds = new ArrayList<>();
+
+        chunk.forEach((index, postDto) -> {
+            Set<Long> postCategoryIds = resolveIds(postDto.getCategories(), CategoryDto::getName, categoryIds);
+            Set<Long> postAuthorIds = resolveIds(postDto.getAuthors(), AuthorDto::getEmail, authorIds);
+
+            if (postCategoryIds.isEmpty()) {
+                results.add(failed(index, "No categories found for post."));
+            } else if (postAuthorIds.isEmpty()) {
+                results.add(failed(index, "No authors found for post."));
+            } else if (!takenTitles.add(postDto.getTitle())) {
+                results.add(failed(index, String.format("Post with title %s already exists.", postDto.getTitle())));
+            } else {
+                acceptedIndexes.add(index);
+                acceptedPosts.add(postDto);
+                acceptedCategoryIds.add(postCategoryIds);
+                acceptedAuthorIds.add(postAuthorIds);
+            }
+        });
+
+        if (!acceptedPosts.isEmpty()) {
+            List<Long> postIds = postJdbcRepository.insertPosts(acceptedPosts);
+            Map<Long, Set<Long>> categoryIdsByPostId = new HashMap<>();
+            Map<Long, Set<Long>> authorIdsByPostId = new HashMap<>();
+
+            for (int i = 0; i < postIds.size(); i++) {
+                Long postId = postIds.get(i);
+
+                categoryIdsByPostId.put(postId, acceptedCategoryIds.get(i));
+                authorIdsByPostId.put(postId, acceptedAuthorIds.get(i));
+
+                PostDto acceptedPost = acceptedPosts.get(i);
+                postSearchIndex.index(postId, acceptedPost.getTitle(), acceptedPost.getDescription(), acceptedPost.getContent());
+                suggestIndex.putPost(postId, acceptedPost.getTitle());
+                facetIndex.putPost(postId, acceptedCategoryIds.get(i), acceptedAuthorIds.get(i));
+
+                results.add(BulkItemResult.builder()
+                        .index(acceptedIndexes.get(i))
+                        .status(BulkItemResult.Status.CREATED)
+                        .id(postId)
+                        .build());
+            }
+
+            postJdbcRepository.insertPostCategories(categoryIdsByPostId);
+            postJdbcRepository.insertPostAuthors(authorIdsByPostId);
+        }
+
+        return results;
+    }
+
+    private void flushChunk(Map<Integer, PostDto> chunk, List<BulkItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            results.addAll(Objects.requireNonNull(chunkTransaction.execute(status -> writeChunk(chunk))));
+        } catch (Exception e) {
+            log.error("Bulk post import chunk of {} items rolled back: {}", chunk.size(), e.getMessage());
+            chunk.keySet().forEach(index -> results.add(failed(index, e.getLocalizedMessage())));
+        }
+
+        chunk.clear();
+    }
+
+    @Override
+    public BulkResponse importPosts(InputStream postsAsJsonArray) {
+        List<BulkItemResult> results = new ArrayList<>();
+        Map<Integer, PostDto> chunk = new LinkedHashMap<>();
+        int received = 0;
+
+        try (JsonParser parser = objectMapper.createParser(postsAsJsonArray)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResourceViolationException("Bulk import expects a JSON array of posts.");
+            }
+
+            while (true) {
+                int index = received;
+
+                try {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        break;
+                    }
+
+                    PostDto postDto = parser.readValueAs(PostDto.class);
+                    received++;
+
+                    String violations = validate(postDto);
+
+                    if (violations != null) {
+                        results.add(failed(index, violations));
+                    } else {
+                        chunk.put(index, postDto);
+                    }
+                } catch (JsonProcessingException e) {
+                    received++;
+                    results.add(failed(index, String.format("Malformed JSON, import stopped: %s", e.getOriginalMessage())));
+                    break;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, results);
+                }
+            }
+
+            flushChunk(chunk, results);
+        } catch (IOException e) {
+            throw new ResourceViolationException(e.getLocalizedMessage());
+        }
+
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        int succeeded = (int) results.stream()
+                .filter(r -> r.getStatus() != BulkItemResult.Status.FAILED)
+                .count();
+
+        return BulkResponse.builder()
+                .received(received)
+                .succeeded(succeeded)
+                .failed(received - succeeded)
+                .results(results)
+                .build();
+    }
+}
@@ -1,30 +1,52 @@
 package io.valentinsoare.bloggingengineapi.service;
 
 import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.dto.PostPatchDto;
+import io.valentinsoare.bloggingengineapi.dto.PostSummaryDto;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import io.valentinsoare.bloggingengineapi.response.FacetResponse;
 import io.valentinsoare.bloggingengineapi.response.PostResponse;
+import io.valentinsoare.bloggingengineapi.response.SearchResponse;
+import io.valentinsoare.bloggingengineapi.response.UpsertResponse;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
+
+import java.util.List;
+import java.util.Set;
 
 public interface PostService {
     PostDto createPost(PostDto postDto);
     PostDto getPostById(Long id);
     PostDto getPostByTitle(String title);
-    PostDto updatePost(Long id, PostDto postDto);
-    PostDto updatePostByTitle(String title, PostDto postDto);
+    EntityVersion getPostVersion(Long id);
+    SearchResponse searchPosts(String query, int pageNo, int pageSize);
+    boolean rebuildSearchIndex();
+    FacetResponse getPostFacets(Set<Long> categoryIds, Set<Long> authorIds, String match,
+                                Set<Long> excludedCategoryIds, Set<Long> excludedAuthorIds,
+                                int pageNo, int pageSize, String sortDir);
+    void recordView(Long id);
+    List<PostSummaryDto> getMostViewedPosts(int limit);
+    List<PostSummaryDto> getRelatedPosts(Long id);
+    PostDto updatePost(Long id, PostDto postDto, Long expectedVersion);
+    PostDto updatePostByTitle(String title, PostDto postDto, Long expectedVersion);
+    PostDto patchPost(Long id, PostPatchDto postPatchDto, Long expectedVersion);
+    UpsertResponse upsertPostByTitle(PostDto postDto);
     PostResponse getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir);
+    PostResponse getAllPostsAfter(String after, int pageSize, String sortBy, String sortDir);
     void deletePostWithId(Long id);
-    void deleteAllPosts();
+    BulkDeleteJobResponse deleteAllPosts();
     Long countAllPosts();
 
     PostResponse getPostsByAuthorId(Long authorId, int pageNo, int pageSize, String sortBy, String sortDir);
     PostResponse getPostsByAuthorLastName(String lastName, int pageNo, int pageSize, String sortBy, String sortDir);
     PostResponse getPostsByAuthorEmail(String email, int pageNo, int pageSize, String sortBy, String sortDir);
     Long countPostsByAuthorId(Long authorId);
-    void deleteAllPostsByAuthorId(Long authorId);
+    BulkDeleteJobResponse deleteAllPostsByAuthorId(Long authorId);
 
     PostResponse getPostsByCategoryName(String categoryName, int pageNo, int pageSize, String sortBy, String sortDir);
     PostResponse getPostsByCategoryId(Long categoryId, int pageNo, int pageSize, String sortBy, String sortDir);
     Long countPostByCategoryId(Long categoryId);
-    void deleteAllPostsByCategoryId(Long categoryId);
-    void deleteAllPostsByCategoryName(String categoryName);
+    BulkDeleteJobResponse deleteAllPostsByCategoryId(Long categoryId);
+    BulkDeleteJobResponse deleteAllPostsByCategoryName(String categoryName);
 
     PostResponse getPostsByAuthorEmailAndCategoryName(String email, String categoryName, int pageNo, int pageSize, String sortBy, String sortDir);
     PostResponse getPostsByAuthorIdAndCategoryId(Long authorId, Long categoryId, int pageNo, int pageSize, String sortBy, String sortDir);
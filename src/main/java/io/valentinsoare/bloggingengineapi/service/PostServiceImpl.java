@@ -1,116 +1,306 @@
 package io.valentinsoare.bloggingengineapi.service;
 
+import io.valentinsoare.bloggingengineapi.cache.PostCache;
+import io.valentinsoare.bloggingengineapi.counter.PostViewTracker;
 import io.valentinsoare.bloggingengineapi.dto.AuthorDto;
 import io.valentinsoare.bloggingengineapi.dto.CategoryDto;
-import io.valentinsoare.bloggingengineapi.dto.CommentDto;
 import io.valentinsoare.bloggingengineapi.entity.Author;
 import io.valentinsoare.bloggingengineapi.entity.Category;
-import io.valentinsoare.bloggingengineapi.entity.Comment;
 import io.valentinsoare.bloggingengineapi.entity.Post;
 import io.valentinsoare.bloggingengineapi.exception.NoElementsException;
+import io.valentinsoare.bloggingengineapi.facet.FacetIndex;
 import io.valentinsoare.bloggingengineapi.exception.ResourceNotFoundException;
 import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.mapper.PostMapper;
+import io.valentinsoare.bloggingengineapi.purge.BulkDeleteEngine;
 import io.valentinsoare.bloggingengineapi.dto.PostDto;
+import io.valentinsoare.bloggingengineapi.dto.PostPatchDto;
+import io.valentinsoare.bloggingengineapi.dto.PostSummaryDto;
+import io.valentinsoare.bloggingengineapi.related.RelatedPostsIndex;
 import io.valentinsoare.bloggingengineapi.repository.AuthorRepository;
 import io.valentinsoare.bloggingengineapi.repository.CategoryRepository;
+import io.valentinsoare.bloggingengineapi.repository.PostJdbcRepository;
+import io.valentinsoare.bloggingengineapi.repository.PostNameView;
+import io.valentinsoare.bloggingengineapi.repository.PostSummaryView;
+import io.valentinsoare.bloggingengineapi.response.BulkDeleteJobResponse;
+import io.valentinsoare.bloggingengineapi.response.FacetResponse;
 import io.valentinsoare.bloggingengineapi.response.PostResponse;
+import io.valentinsoare.bloggingengineapi.response.SearchResponse;
+import io.valentinsoare.bloggingengineapi.response.UpsertResponse;
 import io.valentinsoare.bloggingengineapi.repository.PostRepository;
+import io.valentinsoare.bloggingengineapi.search.PostSearchIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestionType;
+import io.valentinsoare.bloggingengineapi.utilities.ApplicationConstants;
 import io.valentinsoare.bloggingengineapi.utilities.AuxiliaryMethods;
+import io.valentinsoare.bloggingengineapi.utilities.EntityVersion;
+import io.valentinsoare.bloggingengineapi.utilities.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.*;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class PostServiceImpl implements PostService {
     private final PostRepository postRepository;
+    private final PostJdbcRepository postJdbcRepository;
     private final AuxiliaryMethods auxiliaryMethods;
-    private final ModelMapper modelmapper;
+    private final PostMapper postMapper;
     private final CategoryRepository categoryRepository;
     private final AuthorRepository authorRepository;
+    private final PostCache postCache;
+    private final BulkDeleteEngine bulkDeleteEngine;
+    private final PostViewTracker postViewTracker;
+    private final PostSearchIndex postSearchIndex;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final RelatedPostsIndex relatedPostsIndex;
+    private final TransactionTemplate readOnlyTransaction;
 
     public PostServiceImpl(PostRepository postRepository,
-                           ModelMapper modelMapper,
+                           PostJdbcRepository postJdbcRepository,
+                           PostMapper postMapper,
                            CategoryRepository categoryRepository,
-                           AuthorRepository authorRepository) {
-        this.modelmapper = modelMapper;
+                           AuthorRepository authorRepository,
+                           PostCache postCache,
+                           BulkDeleteEngine bulkDeleteEngine,
+                           PostViewTracker postViewTracker,
+                           PostSearchIndex postSearchIndex,
+                           SuggestIndex suggestIndex,
+                           FacetIndex facetIndex,
+                           RelatedPostsIndex relatedPostsIndex,
+                           PlatformTransactionManager transactionManager) {
+        this.postMapper = postMapper;
         this.postRepository = postRepository;
+        this.postJdbcRepository = postJdbcRepository;
         this.auxiliaryMethods = AuxiliaryMethods.getInstance();
         this.categoryRepository = categoryRepository;
         this.authorRepository = authorRepository;
+        this.postCache = postCache;
+        this.bulkDeleteEngine = bulkDeleteEngine;
+        this.postViewTracker = postViewTracker;
+        this.postSearchIndex = postSearchIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.relatedPostsIndex = relatedPostsIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     private PostDto mapToDTO(Post post) {
-        return modelmapper.map(post, PostDto.class);
+        return postMapper.mapToDTO(post);
     }
 
     private Post mapToEntity(PostDto postDto) {
-        return modelmapper.map(postDto, Post.class);
+        return postMapper.mapToEntity(postDto);
     }
 
-    private PostResponse preparePostResponseToBeReturned(Page<Post> pageWithPosts) {
-        List<PostDto> content = pageWithPosts.getContent().stream()
-                .map(this::mapToDTO)
+    private PostSummaryDto mapToSummaryDTO(PostSummaryView postSummaryView) {
+        return PostSummaryDto.builder()
+                .id(postSummaryView.getId())
+                .title(postSummaryView.getTitle())
+                .description(postSummaryView.getDescription())
+                .commentCount(postSummaryView.getCommentCount())
+                .viewCount(postSummaryView.getViewCount())
+                .build();
+    }
+
+    private Map<Long, List<String>> groupNamesByPostId(List<PostNameView> names) {
+        return names.stream()
+                .collect(Collectors.groupingBy(
+                        PostNameView::getPostId,
+                        Collectors.mapping(PostNameView::getName, Collectors.toList())
+                ));
+    }
+
+    // two IN (...) queries for the whole page instead of walking the collections of every post
+    private List<PostSummaryDto> attachAuthorAndCategoryNames(List<PostSummaryDto> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+
+        List<Long> postIds = summaries.stream()
+                .map(PostSummaryDto::getId)
                 .toList();
 
+        Map<Long, List<String>> authorNames = groupNamesByPostId(postRepository.findAuthorNamesByPostIds(postIds));
+        Map<Long, List<String>> categoryNames = groupNamesByPostId(postRepository.findCategoryNamesByPostIds(postIds));
+
+        summaries.forEach(summary -> {
+            summary.setAuthorNames(authorNames.getOrDefault(summary.getId(), List.of()));
+            summary.setCategoryNames(categoryNames.getOrDefault(summary.getId(), List.of()));
+        });
+
+        return summaries;
+    }
+
+    private PostResponse prepareSummaryResponseToBeReturned(Page<PostSummaryView> pageWithSummaries) {
+        List<PostSummaryDto> content = attachAuthorAndCategoryNames(pageWithSummaries.getContent().stream()
+                .map(this::mapToSummaryDTO)
+                .toList());
+
         return PostResponse.builder()
                 .pageContent(content)
-                .pageNo(pageWithPosts.getNumber())
-                .pageSize(pageWithPosts.getSize())
+                .pageNo(pageWithSummaries.getNumber())
+                .pageSize(pageWithSummaries.getSize())
                 .totalPostsOnPage(content.size())
-                .totalPages(pageWithPosts.getTotalPages())
-                .isLast(pageWithPosts.isLast())
+                .totalPages(pageWithSummaries.getTotalPages())
+                .isLast(pageWithSummaries.isLast())
                 .build();
     }
 
-    private PostDto prepareAnswerForUpdateMethods(Post post, PostDto postDto) {
-        post.setTitle(postDto.getTitle())
-                .setDescription(postDto.getDescription())
-                .setContent(postDto.getContent())
-                .setCategories(new HashSet<>())
-                .setAuthors(new HashSet<>())
-                .setComments(new HashSet<>());
+    private PostResponse preparePostResponseToBeReturned(Window<PostSummaryView> windowWithPosts, String sortBy, String sortDir) {
+        List<PostSummaryDto> content = attachAuthorAndCategoryNames(windowWithPosts.getContent().stream()
+                .map(this::mapToSummaryDTO)
+                .toList());
 
-        postDto.getCategories().forEach(categoryDto -> {
-            Optional<Category> categoryByName = categoryRepository.findCategoryByName(categoryDto.getName());
+        String nextCursor = null;
 
-            if (categoryByName.isPresent()) {
-                Category foundCategory = categoryByName.get();
-                post.addCategory(foundCategory);
-            }
-        });
+        if (windowWithPosts.hasNext()) {
+            KeysetScrollPosition lastPosition = (KeysetScrollPosition) windowWithPosts.positionAt(windowWithPosts.size() - 1);
 
-        postDto.getAuthors().forEach(authorDto -> {
-            Optional<Author> authorByEmail = authorRepository.getAuthorByEmail(authorDto.getEmail());
+            nextCursor = auxiliaryMethods.encodeCursor(KeysetCursor.builder()
+                    .sortBy(sortBy)
+                    .sortDir(sortDir)
+                    .keys(lastPosition.getKeys())
+                    .build());
+        }
 
-            if (authorByEmail.isPresent()) {
-                Author foundAuthor = authorByEmail.get();
-                post.addAuthor(foundAuthor);
+        return PostResponse.builder()
+                .pageContent(content)
+                .pageSize(content.size())
+                .totalPostsOnPage(content.size())
+                .isLast(!windowWithPosts.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Map<String, Object> restoreKeysetKeys(Map<String, Object> keys) {
+        Map<String, Object> restoredKeys = new LinkedHashMap<>();
+
+        keys.forEach((column, value) -> {
+            if ("id".equals(column) && value instanceof Number number) {
+                restoredKeys.put(column, number.longValue());
+            } else {
+                restoredKeys.put(column, String.valueOf(value));
             }
         });
 
-        Set<CommentDto> commentsDto = postDto.getComments();
+        return restoredKeys;
+    }
+
+    // only the owning side is linked, so the inverse post collections of categories and authors stay unloaded
+    private List<Category> resolveCategories(Set<CategoryDto> categoriesDto) {
+        Set<String> names = categoriesDto.stream()
+                .map(CategoryDto::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        List<Category> categories = categoryRepository.findAllByNameIn(names);
+        requireAllFound("categories", "names", names, categories.stream().map(Category::getName).toList());
+
+        return categories;
+    }
+
+    private List<Author> resolveAuthors(Set<AuthorDto> authorsDto) {
+        Set<String> emails = authorsDto.stream()
+                .map(AuthorDto::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+
+        List<Author> authors = authorRepository.findAllByEmailIn(emails);
+        requireAllFound("authors", "emails", emails, authors.stream().map(Author::getEmail).toList());
+
+        return authors;
+    }
+
+    // a misspelt name or email is reported instead of silently leaving the post without that link;
+    // compared ignoring case, as the column collation does
+    private static void requireAllFound(String resourceName, String keyName, Set<String> requested, Collection<String> found) {
+        Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+        requested.stream()
+                .filter(Objects::nonNull)
+                .forEach(missing::add);
+
+        found.forEach(missing::remove);
 
-        if (!commentsDto.isEmpty()) {
-            commentsDto.forEach(commentDto -> {
-                Comment comment = modelmapper.map(commentDto, Comment.class);
-                post.addComment(comment);
-            });
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(resourceName, new HashMap<>(Map.of(keyName, String.join(", ", missing))));
         }
+    }
+
+    // mutating the managed sets in place lets Hibernate write only the join rows that were added or removed
+    private static <T> void reconcile(Set<T> current, Collection<T> wanted) {
+        current.retainAll(wanted);
+        current.addAll(wanted);
+    }
+
+    private void reconcileCategories(Post post, Set<CategoryDto> categoriesDto) {
+        List<Category> categories = resolveCategories(categoriesDto);
+
+        if (categories.isEmpty()) {
+            throw new ResourceViolationException("No categories found for post.");
+        }
+
+        reconcile(post.getCategories(), categories);
+    }
+
+    private void reconcileAuthors(Post post, Set<AuthorDto> authorsDto) {
+        List<Author> authors = resolveAuthors(authorsDto);
+
+        if (authors.isEmpty()) {
+            throw new ResourceViolationException("No authors found for post.");
+        }
+
+        reconcile(post.getAuthors(), authors);
+    }
+
+    private void indexFacets(Post post) {
+        facetIndex.putPost(post.getId(),
+                post.getCategories().stream().map(Category::getId).toList(),
+                post.getAuthors().stream().map(Author::getId).toList());
+    }
+
+    // comments are managed through the comments API and are left as they are
+    private PostDto prepareAnswerForUpdateMethods(Post post, PostDto postDto) {
+        post.setTitle(postDto.getTitle())
+                .setDescription(postDto.getDescription())
+                .setContent(postDto.getContent());
+
+        reconcileCategories(post, postDto.getCategories());
+        reconcileAuthors(post, postDto.getAuthors());
 
         Post updatedPost;
 
         try {
-            updatedPost = postRepository.save(post);
+            updatedPost = postRepository.saveAndFlush(post);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResourceViolationException(e.getLocalizedMessage());
         }
 
+        postSearchIndex.index(updatedPost.getId(), updatedPost.getTitle(), updatedPost.getDescription(), updatedPost.getContent());
+        suggestIndex.putPost(updatedPost.getId(), updatedPost.getTitle());
+        indexFacets(updatedPost);
         return mapToDTO(updatedPost);
     }
 
@@ -124,27 +314,13 @@ public class PostServiceImpl implements PostService {
                 .setCategories(new HashSet<>())
                 .setAuthors(new HashSet<>());
 
-        for (CategoryDto category : categoriesDto) {
-            Optional<Category> categoryByName = categoryRepository.findCategoryByName(category.getName());
-
-            if (categoryByName.isPresent()) {
-                Category foundCategory = categoryByName.get();
-                newPost.addCategory(foundCategory);
-            }
-        }
+        newPost.getCategories().addAll(resolveCategories(categoriesDto));
 
         if (newPost.getCategories().isEmpty()) {
             throw new ResourceViolationException("No categories found for post.");
         }
 
-        for (AuthorDto author : authorsDto) {
-            Optional<Author> authorByEmail = authorRepository.getAuthorByEmail(author.getEmail());
-
-            if (authorByEmail.isPresent()) {
-                Author foundAuthor = authorByEmail.get();
-                newPost.addAuthor(foundAuthor);
-            }
-        }
+        newPost.getAuthors().addAll(resolveAuthors(authorsDto));
 
         if (newPost.getAuthors().isEmpty()) {
             throw new ResourceViolationException("No authors found for post.");
@@ -152,6 +328,9 @@ public class PostServiceImpl implements PostService {
 
         try {
             Post savedPost = postRepository.save(newPost);
+            postSearchIndex.index(savedPost.getId(), savedPost.getTitle(), savedPost.getDescription(), savedPost.getContent());
+            suggestIndex.putPost(savedPost.getId(), savedPost.getTitle());
+            indexFacets(savedPost);
             return mapToDTO(savedPost);
         } catch (Exception e) {
             throw new ResourceViolationException(e.getLocalizedMessage());
@@ -163,39 +342,196 @@ public class PostServiceImpl implements PostService {
     public PostResponse getAllPosts(int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.findAll(pageCharacteristics);
+        Page<PostSummaryView> pageWithSummaries = postRepository.findAllSummaries(pageCharacteristics);
 
-        if (pageWithPosts.isEmpty()) {
+        if (pageWithSummaries.isEmpty()) {
             throw new NoElementsException(
                     "posts for page number: %s with max %s posts per page".formatted(pageNo, pageSize)
             );
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithSummaries);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public PostResponse getAllPostsAfter(String after, int pageSize, String sortBy, String sortDir) {
+        ScrollPosition position = ScrollPosition.keyset();
+
+        if (StringUtils.hasText(after)) {
+            KeysetCursor cursor = auxiliaryMethods.decodeCursor(after);
+
+            sortBy = cursor.getSortBy();
+            sortDir = cursor.getSortDir();
+            position = ScrollPosition.forward(restoreKeysetKeys(cursor.getKeys()));
+        }
+
+        if (!ApplicationConstants.KEYSET_POSTS_SORT_BY.contains(sortBy)) {
+            throw new ResourceViolationException(
+                    "keyset pagination supports sorting only by %s".formatted(ApplicationConstants.KEYSET_POSTS_SORT_BY)
+            );
+        }
+
+        Window<PostSummaryView> windowWithPosts = postRepository.findAllBy(
+                position, auxiliaryMethods.keysetSortWithDirections(sortDir, sortBy), Limit.of(pageSize)
+        );
+
+        if (windowWithPosts.isEmpty()) {
+            throw new NoElementsException("posts after cursor: %s with max %s posts per page".formatted(after, pageSize));
+        }
+
+        return preparePostResponseToBeReturned(windowWithPosts, sortBy, sortDir);
+    }
+
+    // cache hits return before a transaction, and with it a pooled connection, is opened
+    @Override
     public PostDto getPostById(Long id) {
-        Post post = postRepository.getPostById(id);
+        return postCache.getById(id)
+                .orElseGet(() -> readOnlyTransaction.execute(status -> {
+                    Post post = postRepository.getPostById(id);
 
-        if (post == null || post.getId() < 1) {
-            throw new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))));
+                    if (post == null || post.getId() < 1) {
+                        throw new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))));
+                    }
+
+                    PostDto postDto = mapToDTO(post);
+                    postCache.put(postDto);
+
+                    return postDto;
+                }));
+    }
+
+    // answered from the cache when possible, so a 304 never needs more than a single-row version lookup
+    @Override
+    public EntityVersion getPostVersion(Long id) {
+        return postCache.getById(id)
+                .map(postDto -> EntityVersion.of(postDto.getVersion(), postDto.getLastModified()))
+                .orElseGet(() -> postRepository.findVersionById(id)
+                        .map(EntityVersion::of)
+                        .orElseThrow(() -> new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))))));
+    }
+
+    @Override
+    public SearchResponse searchPosts(String query, int pageNo, int pageSize) {
+        return postSearchIndex.search(query, pageNo, pageSize);
+    }
+
+    @Override
+    public boolean rebuildSearchIndex() {
+        return postSearchIndex.rebuild();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetResponse getPostFacets(Set<Long> categoryIds, Set<Long> authorIds, String match,
+                                       Set<Long> excludedCategoryIds, Set<Long> excludedAuthorIds,
+                                       int pageNo, int pageSize, String sortDir) {
+        if (pageNo < 0 || pageSize < 1) {
+            throw new ResourceViolationException("Page number must be 0 or more and page size 1 or more.");
+        }
+
+        boolean matchAll = switch (match.toLowerCase(Locale.ROOT)) {
+            case "all" -> true;
+            case "any" -> false;
+            default -> throw new ResourceViolationException("Match must be all or any, got %s.".formatted(match));
+        };
+
+        FacetIndex.Filter filter = new FacetIndex.Filter(orEmpty(categoryIds), orEmpty(authorIds), matchAll,
+                orEmpty(excludedCategoryIds), orEmpty(excludedAuthorIds));
+
+        FacetIndex.Matches matches = facetIndex.query(filter, (long) pageNo * pageSize, pageSize,
+                Sort.Direction.DESC.name().equalsIgnoreCase(sortDir));
+
+        List<PostSummaryDto> content = findSummariesInOrder(matches.postIds());
+        int totalPages = (int) ((matches.totalMatches() + pageSize - 1) / pageSize);
+
+        return FacetResponse.builder()
+                .pageContent(content)
+                .pageNo(pageNo)
+                .pageSize(pageSize)
+                .totalMatches(matches.totalMatches())
+                .totalPages(totalPages)
+                .isLast(pageNo >= totalPages - 1)
+                .categories(matches.categories())
+                .authors(matches.authors())
+                .indexComplete(facetIndex.isComplete())
+                .build();
+    }
+
+    // keeps the order of the in-memory index, a post deleted since the index was read is skipped
+    private List<PostSummaryDto> findSummariesInOrder(long[] postIds) {
+        if (postIds.length == 0) {
+            return List.of();
         }
 
-        return mapToDTO(post);
+        List<Long> ids = Arrays.stream(postIds).boxed().toList();
+
+        Map<Long, PostSummaryDto> summariesById = postRepository.findSummariesByIds(ids).stream()
+                .map(this::mapToSummaryDTO)
+                .collect(Collectors.toMap(PostSummaryDto::getId, summary -> summary));
+
+        return attachAuthorAndCategoryNames(ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    private static Set<Long> orEmpty(Set<Long> ids) {
+        return ids == null ? Set.of() : ids;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PostDto getPostByTitle(String title) {
-        Post post = postRepository.getPostByTitle(title);
+    public List<PostSummaryDto> getRelatedPosts(Long id) {
+        Optional<long[]> relatedIds = relatedPostsIndex.get(id);
+
+        if (relatedIds.isEmpty()) {
+            if (!postRepository.existsById(id)) {
+                throw new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))));
+            }
+
+            return List.of();
+        }
+
+        return findSummariesInOrder(relatedIds.get());
+    }
 
-        if (post == null || post.getId() < 1) {
-            throw new ResourceNotFoundException("post", new HashMap<>(Map.of("title", title)));
+    @Override
+    public void recordView(Long id) {
+        postViewTracker.recordView(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSummaryDto> getMostViewedPosts(int limit) {
+        int boundedLimit = Math.clamp(limit, 1, ApplicationConstants.MAX_MOST_VIEWED_POSTS_LIMIT);
+
+        List<PostSummaryDto> mostViewed = postRepository.findMostViewedSummaries(Limit.of(boundedLimit)).stream()
+                .map(this::mapToSummaryDTO)
+                .toList();
+
+        if (mostViewed.isEmpty()) {
+            throw new NoElementsException("posts");
         }
 
-        return mapToDTO(post);
+        return attachAuthorAndCategoryNames(mostViewed);
+    }
+
+    @Override
+    public PostDto getPostByTitle(String title) {
+        return postCache.getByTitle(title)
+                .orElseGet(() -> readOnlyTransaction.execute(status -> {
+                    Post post = postRepository.getPostByTitle(title);
+
+                    if (post == null || post.getId() < 1) {
+                        throw new ResourceNotFoundException("post", new HashMap<>(Map.of("title", title)));
+                    }
+
+                    PostDto postDto = mapToDTO(post);
+                    postCache.put(postDto);
+
+                    return postDto;
+                }));
     }
 
     @Override
@@ -203,37 +539,145 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByAuthorEmail(String email, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getAllPostsByAuthorEmail(email, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getAllPostsByAuthorEmail(email, pageCharacteristics);
 
         if (pageWithPosts.isEmpty()) {
             throw new NoElementsException(String.format("posts by author email: %s", email));
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
     @Transactional
-    public PostDto updatePost(Long id, PostDto postDto) {
+    public PostDto updatePost(Long id, PostDto postDto, Long expectedVersion) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))))
                 );
 
+        auxiliaryMethods.checkVersion("post", expectedVersion, post.getVersion());
+        postCache.evict(post.getId());
         return prepareAnswerForUpdateMethods(post, postDto);
     }
 
     @Override
     @Transactional
-    public PostDto updatePostByTitle(String title, PostDto postDto) {
+    public PostDto updatePostByTitle(String title, PostDto postDto, Long expectedVersion) {
         Post post = postRepository.findPostByTitle(title)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("post", new HashMap<>(Map.of("title", title)))
                 );
 
+        auxiliaryMethods.checkVersion("post", expectedVersion, post.getVersion());
+        postCache.evict(post.getId());
         return prepareAnswerForUpdateMethods(post, postDto);
     }
 
+    @Override
+    @Transactional
+    public PostDto patchPost(Long id, PostPatchDto postPatchDto, Long expectedVersion) {
+        Post post = postRepository.findById(id)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id))))
+                );
+
+        auxiliaryMethods.checkVersion("post", expectedVersion, post.getVersion());
+
+        if (postPatchDto.getTitle() != null) {
+            post.setTitle(postPatchDto.getTitle());
+        }
+
+        if (postPatchDto.getDescription() != null) {
+            post.setDescription(postPatchDto.getDescription());
+        }
+
+        if (postPatchDto.getContent() != null) {
+            post.setContent(postPatchDto.getContent());
+        }
+
+        if (postPatchDto.getCategories() != null) {
+            reconcileCategories(post, postPatchDto.getCategories());
+        }
+
+        if (postPatchDto.getAuthors() != null) {
+            reconcileAuthors(post, postPatchDto.getAuthors());
+        }
+
+        postCache.evict(post.getId());
+
+        try {
+            Post patchedPost = postRepository.saveAndFlush(post);
+            postSearchIndex.index(patchedPost.getId(), patchedPost.getTitle(), patchedPost.getDescription(), patchedPost.getContent());
+            suggestIndex.putPost(patchedPost.getId(), patchedPost.getTitle());
+            indexFacets(patchedPost);
+            return mapToDTO(patchedPost);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResourceViolationException(e.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public UpsertResponse upsertPostByTitle(PostDto postDto) {
+        Set<String> categoryNames = postDto.getCategories().stream()
+                .map(CategoryDto::getName)
+                .collect(Collectors.toSet());
+
+        Set<String> authorEmails = postDto.getAuthors().stream()
+                .map(AuthorDto::getEmail)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> categoryIdsByName = postJdbcRepository.findCategoryIdsByNames(categoryNames);
+        requireAllFound("categories", "names", categoryNames, categoryIdsByName.keySet());
+        Collection<Long> categoryIds = categoryIdsByName.values();
+
+        if (categoryIds.isEmpty()) {
+            throw new ResourceViolationException("No categories found for post.");
+        }
+
+        Map<String, Long> authorIdsByEmail = postJdbcRepository.findAuthorIdsByEmails(authorEmails);
+        requireAllFound("authors", "emails", authorEmails, authorIdsByEmail.keySet());
+        Collection<Long> authorIds = authorIdsByEmail.values();
+
+        if (authorIds.isEmpty()) {
+            throw new ResourceViolationException("No authors found for post.");
+        }
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        int affectedRows;
+
+        try {
+            affectedRows = postJdbcRepository.upsertPost(postDto, keyHolder);
+        } catch (Exception e) {
+            throw new ResourceViolationException(e.getLocalizedMessage());
+        }
+
+        // the driver reports one key per affected row, the first one is the post id
+        Long postId = ((Number) keyHolder.getKeyList().get(0).values().iterator().next()).longValue();
+
+        boolean created = affectedRows == 1;
+
+        postJdbcRepository.reconcilePostCategories(postId, categoryIds);
+        postJdbcRepository.reconcilePostAuthors(postId, authorIds);
+
+        if (!created) {
+            postCache.evict(postId);
+        }
+
+        postSearchIndex.index(postId, postDto.getTitle(), postDto.getDescription(), postDto.getContent());
+        suggestIndex.putPost(postId, postDto.getTitle());
+        facetIndex.putPost(postId, categoryIds, authorIds);
+
+        return UpsertResponse.builder()
+                .id(postId)
+                .title(postDto.getTitle())
+                .created(created)
+                .build();
+    }
+
     @Override
     @Transactional
     public void deletePostWithId(Long id) {
@@ -241,6 +685,10 @@ public class PostServiceImpl implements PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("post", new HashMap<>(Map.of("id", String.valueOf(id)))));
 
         postRepository.delete(post);
+        postCache.evict(id);
+        postSearchIndex.remove(List.of(id));
+        suggestIndex.remove(SuggestionType.POST, List.of(id));
+        facetIndex.removePosts(List.of(id));
     }
 
     @Override
@@ -256,9 +704,8 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @Transactional
-    public void deleteAllPosts() {
-        postRepository.deleteAll();
+    public BulkDeleteJobResponse deleteAllPosts() {
+        return bulkDeleteEngine.deletePosts("all posts", "SELECT id FROM post", Map.of());
     }
 
     @Override
@@ -274,9 +721,10 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @Transactional
-    public void deleteAllPostsByAuthorId(Long authorId) {
-        postRepository.deleteAllByAuthorId(authorId);
+    public BulkDeleteJobResponse deleteAllPostsByAuthorId(Long authorId) {
+        return bulkDeleteEngine.deletePosts("posts by author id: %s".formatted(authorId),
+                "SELECT post_id AS id FROM post_author WHERE author_id = :authorId",
+                Map.of("authorId", authorId));
     }
 
     @Override
@@ -284,13 +732,13 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByCategoryName(String categoryName, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getAllPostsByCategoryName(categoryName, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getAllPostsByCategoryName(categoryName, pageCharacteristics);
 
         if (pageWithPosts.isEmpty()) {
             throw new NoElementsException(String.format("posts by category name: %s", categoryName));
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
@@ -298,19 +746,20 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByCategoryId(Long categoryId, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getAllPostsByCategoryId(categoryId, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getAllPostsByCategoryId(categoryId, pageCharacteristics);
 
         if (pageWithPosts.isEmpty()) {
             throw new NoElementsException(String.format("posts by category id: %s", categoryId));
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long countPostByCategoryId(Long categoryId) {
-        Long l = postRepository.countPostByCategoryId(categoryId);
+        Long l = facetIndex.countPostsInCategory(categoryId)
+                .orElseGet(() -> postRepository.countPostByCategoryId(categoryId));
 
         if (l < 1) {
             throw new NoElementsException("posts by category id: %s".formatted(categoryId));
@@ -320,15 +769,17 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @Transactional
-    public void deleteAllPostsByCategoryId(Long categoryId) {
-        postRepository.deleteAllPostsByCategoryId(categoryId);
+    public BulkDeleteJobResponse deleteAllPostsByCategoryId(Long categoryId) {
+        return bulkDeleteEngine.deletePosts("posts by category id: %s".formatted(categoryId),
+                "SELECT post_id AS id FROM post_category WHERE category_id = :categoryId",
+                Map.of("categoryId", categoryId));
     }
 
     @Override
-    @Transactional
-    public void deleteAllPostsByCategoryName(String categoryName) {
-        postRepository.deleteAllPostsByCategoryName(categoryName);
+    public BulkDeleteJobResponse deleteAllPostsByCategoryName(String categoryName) {
+        return bulkDeleteEngine.deletePosts("posts by category name: %s".formatted(categoryName),
+                "SELECT pc.post_id AS id FROM post_category pc JOIN category c ON c.id = pc.category_id WHERE c.name = :categoryName",
+                Map.of("categoryName", categoryName));
     }
 
     @Override
@@ -336,13 +787,13 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByAuthorEmailAndCategoryName(String email, String categoryName, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getPostsByAuthorEmailAndCategoryName(email, categoryName, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getPostsByAuthorEmailAndCategoryName(email, categoryName, pageCharacteristics);
 
         if (pageWithPosts.isEmpty()) {
             throw new NoElementsException("posts by author with email: %s and category name: %s".formatted(email, categoryName));
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
@@ -350,7 +801,7 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByAuthorIdAndCategoryId(Long authorId, Long categoryId, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getPostsByAuthorIdAndCategoryId(authorId, categoryId, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getPostsByAuthorIdAndCategoryId(authorId, categoryId, pageCharacteristics);
 
         if (pageWithPosts.isEmpty()) {
             throw new NoElementsException(
@@ -358,7 +809,7 @@ public class PostServiceImpl implements PostService {
             );
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
@@ -366,13 +817,13 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByAuthorId(Long authorId, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> pageWithPosts = postRepository.getAllPostsByAuthorId(authorId, pageCharacteristics);
+        Page<PostSummaryView> pageWithPosts = postRepository.getAllPostsByAuthorId(authorId, pageCharacteristics);
 
         if (pageWithPosts.getContent().isEmpty()) {
             throw new NoElementsException("posts by author with id: %s".formatted(authorId));
         }
 
-        return preparePostResponseToBeReturned(pageWithPosts);
+        return prepareSummaryResponseToBeReturned(pageWithPosts);
     }
 
     @Override
@@ -380,12 +831,12 @@ public class PostServiceImpl implements PostService {
     public PostResponse getPostsByAuthorLastName(String lastName, int pageNo, int pageSize, String sortBy, String sortDir) {
         Pageable pageCharacteristics = auxiliaryMethods.sortingWithDirections(sortDir, sortBy, pageNo, pageSize);
 
-        Page<Post> allPostsByAuthorLastName = postRepository.getAllPostsByAuthorLastName(lastName, pageCharacteristics);
+        Page<PostSummaryView> allPostsByAuthorLastName = postRepository.getAllPostsByAuthorLastName(lastName, pageCharacteristics);
 
         if (allPostsByAuthorLastName.isEmpty()) {
             throw new NoElementsException("posts by author with last name: %s".formatted(lastName));
         }
 
-        return preparePostResponseToBeReturned(allPostsByAuthorLastName);
+        return prepareSummaryResponseToBeReturned(allPostsByAuthorLastName);
     }
 }
@@ -0,0 +1,9 @@
+package io.valentinsoare.bloggingengineapi.service;
+
+import io.valentinsoare.bloggingengineapi.dto.SuggestionDto;
+
+import java.util.List;
+
+public interface SuggestService {
+    List<SuggestionDto> suggest(String prefix, String type, int limit);
+}
@@ -0,0 +1,38 @@
+package io.valentinsoare.bloggingengineapi.service;
+
+import io.valentinsoare.bloggingengineapi.dto.SuggestionDto;
+import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestIndex;
+import io.valentinsoare.bloggingengineapi.suggest.SuggestionType;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class SuggestServiceImpl implements SuggestService {
+    private final SuggestIndex suggestIndex;
+
+    public SuggestServiceImpl(SuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(String prefix, String type, int limit) {
+        SuggestionType suggestionType;
+
+        try {
+            suggestionType = SuggestionType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResourceViolationException("Unknown suggestion type %s, expected one of %s."
+                    .formatted(type, Arrays.toString(SuggestionType.values()).toLowerCase(Locale.ROOT)));
+        }
+
+        if (prefix == null || prefix.isBlank() || limit < 1) {
+            return List.of();
+        }
+
+        return suggestIndex.suggest(suggestionType, prefix, limit);
+    }
+}
@@ -0,0 +1,335 @@
+package io.valentinsoare.bloggingengineapi.suggest;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Character trie over lower-cased keys where every node keeps the k heaviest entries of its subtree,
+ * so a prefix lookup is a walk down the prefix and a copy of at most k entries. An entry may be stored
+ * under several keys, e.g. an author under "first last" and "last first".
+ */
+final class PrefixTrie {
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> HEAVIEST_FIRST = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::text)
+            .thenComparingLong(Entry::id);
+
+    record Entry(long id, String text, long weight) {}
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private List<Entry> terminals = List.of();
+        private Entry[] top = NO_ENTRIES;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index < 0 ? null : children[index];
+        }
+
+        Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+
+            if (index < 0) {
+                return;
+            }
+
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminals.isEmpty() && children.length == 0;
+        }
+    }
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, List<String>> keysById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    static String normalize(String text) {
+        String key = text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Adds or replaces the entry with this id. A null weight keeps the weight the entry already had, or 0.
+     */
+    void put(long id, String text, Long weight, List<String> keys) {
+        lock.writeLock().lock();
+
+        try {
+            Entry previous = entries.get(id);
+            long newWeight = weight != null ? weight : previous != null ? previous.weight() : 0L;
+
+            if (previous != null) {
+                removeLocked(id);
+            }
+
+            Entry entry = new Entry(id, text, newWeight);
+            List<String> normalizedKeys = keys.stream()
+                    .map(PrefixTrie::normalize)
+                    .filter(key -> !key.isEmpty())
+                    .distinct()
+                    .toList();
+
+            entries.put(id, entry);
+            keysById.put(id, normalizedKeys);
+
+            for (String key : normalizedKeys) {
+                insert(key, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void addWeight(long id, long delta) {
+        lock.writeLock().lock();
+
+        try {
+            Entry previous = entries.get(id);
+
+            if (previous != null) {
+                changeWeightLocked(previous, previous.weight() + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void setWeight(long id, long weight) {
+        lock.writeLock().lock();
+
+        try {
+            Entry previous = entries.get(id);
+
+            if (previous != null) {
+                changeWeightLocked(previous, weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Entry> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+
+        lock.readLock().lock();
+
+        try {
+            Node node = root;
+
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+
+            if (node == null) {
+                return List.of();
+            }
+
+            return List.of(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String key, Entry entry) {
+        Node node = root;
+        offer(node, entry);
+
+        for (int i = 0; i < key.length(); i++) {
+            node = node.addChild(key.charAt(i));
+            offer(node, entry);
+        }
+
+        List<Entry> terminals = new ArrayList<>(node.terminals);
+        terminals.add(entry);
+        node.terminals = terminals;
+    }
+
+    private void offer(Node node, Entry entry) {
+        for (Entry current : node.top) {
+            if (current.id() == entry.id()) {
+                return;
+            }
+        }
+
+        if (node.top.length == topK && HEAVIEST_FIRST.compare(entry, node.top[topK - 1]) >= 0) {
+            return;
+        }
+
+        Entry[] top = Arrays.copyOf(node.top, Math.min(node.top.length + 1, topK));
+        int position = node.top.length;
+
+        while (position > 0 && HEAVIEST_FIRST.compare(entry, node.top[position - 1]) < 0) {
+            position--;
+        }
+
+        System.arraycopy(node.top, position, top, position + 1, top.length - position - 1);
+        top[position] = entry;
+        node.top = top;
+    }
+
+    // a heavier entry only moves up the top lists along its keys; a lighter one may fall out of them,
+    // and refilling those needs the subtrees, so it is removed and inserted again
+    private void changeWeightLocked(Entry previous, long weight) {
+        if (previous.weight() == weight) {
+            return;
+        }
+
+        long id = previous.id();
+        List<String> keys = keysById.get(id);
+        Entry entry = new Entry(id, previous.text(), weight);
+
+        if (weight < previous.weight()) {
+            removeLocked(id);
+            entries.put(id, entry);
+            keysById.put(id, keys);
+            keys.forEach(key -> insert(key, entry));
+            return;
+        }
+
+        entries.put(id, entry);
+
+        for (String key : keys) {
+            Node node = root;
+            promote(node, entry);
+
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+                promote(node, entry);
+            }
+
+            node.terminals = node.terminals.stream()
+                    .map(terminal -> terminal.id() == id ? entry : terminal)
+                    .toList();
+        }
+    }
+
+    private void promote(Node node, Entry entry) {
+        for (int position = 0; position < node.top.length; position++) {
+            if (node.top[position].id() != entry.id()) {
+                continue;
+            }
+
+            Entry[] top = node.top.clone();
+
+            while (position > 0 && HEAVIEST_FIRST.compare(entry, top[position - 1]) < 0) {
+                top[position] = top[position - 1];
+                position--;
+            }
+
+            top[position] = entry;
+            node.top = top;
+            return;
+        }
+
+        offer(node, entry);
+    }
+
+    private void removeLocked(long id) {
+        List<String> keys = keysById.remove(id);
+        entries.remove(id);
+
+        if (keys == null) {
+            return;
+        }
+
+        for (String key : keys) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+
+            for (int i = 0; i < key.length() && path[i] != null; i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+            }
+
+            Node terminal = path[key.length()];
+
+            if (terminal == null) {
+                continue;
+            }
+
+            terminal.terminals = terminal.terminals.stream()
+                    .filter(entry -> entry.id() != id)
+                    .toList();
+
+            for (int depth = key.length(); depth >= 0; depth--) {
+                Node node = path[depth];
+
+                if (depth > 0 && node.isEmpty()) {
+                    path[depth - 1].removeChild(key.charAt(depth - 1));
+                } else {
+                    recomputeTop(node);
+                }
+            }
+        }
+    }
+
+    private void recomputeTop(Node node) {
+        Map<Long, Entry> candidates = new HashMap<>();
+
+        node.terminals.forEach(entry -> candidates.put(entry.id(), entry));
+
+        for (Node child : node.children) {
+            for (Entry entry : child.top) {
+                candidates.put(entry.id(), entry);
+            }
+        }
+
+        node.top = candidates.values().stream()
+                .sorted(HEAVIEST_FIRST)
+                .limit(topK)
+                .toArray(Entry[]::new);
+    }
+}
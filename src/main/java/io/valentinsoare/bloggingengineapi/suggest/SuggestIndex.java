@@ -0,0 +1,235 @@
+package io.valentinsoare.bloggingengineapi.suggest;
+
+import io.valentinsoare.bloggingengineapi.dto.SuggestionDto;
+import io.valentinsoare.bloggingengineapi.utilities.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Type-ahead tries for post titles, category names and author names, ranked by popularity: views for
+ * posts and number of posts for categories and authors. The tries are built from the database on startup.
+ * Writes update them after commit and keep the current popularity; post views are added as they are
+ * flushed, and the post counts of categories and authors are re-read every app.suggest.refresh-interval-ms.
+ */
+@Slf4j
+@Component
+public class SuggestIndex {
+    private static final String POSTS = "SELECT id, title, view_count FROM post WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String CATEGORIES = """
+            SELECT c.id, c.name, COUNT(pc.post_id) AS posts
+            FROM category c LEFT JOIN post_category pc ON pc.category_id = c.id
+            GROUP BY c.id, c.name
+            """;
+    private static final String AUTHORS = """
+            SELECT a.id, a.first_name, a.last_name, COUNT(pa.post_id) AS posts
+            FROM author a LEFT JOIN post_author pa ON pa.author_id = a.id
+            GROUP BY a.id, a.first_name, a.last_name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final int rebuildBatchSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<SuggestionType, PrefixTrie> tries;
+
+    // non-null while a rebuild runs, guarded by this
+    private List<Consumer<Map<SuggestionType, PrefixTrie>>> replayLog;
+
+    public SuggestIndex(JdbcTemplate jdbcTemplate,
+                        @Value("${app.suggest.top-k:10}") int topK,
+                        @Value("${app.suggest.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topK = topK;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.tries = emptyTries();
+    }
+
+    private Map<SuggestionType, PrefixTrie> emptyTries() {
+        Map<SuggestionType, PrefixTrie> empty = new EnumMap<>(SuggestionType.class);
+
+        for (SuggestionType type : SuggestionType.values()) {
+            empty.put(type, new PrefixTrie(topK));
+        }
+
+        return empty;
+    }
+
+    private static void putPost(Map<SuggestionType, PrefixTrie> target, long id, String title, Long views) {
+        target.get(SuggestionType.POST).put(id, title, views, List.of(title));
+    }
+
+    private static void putCategory(Map<SuggestionType, PrefixTrie> target, long id, String name, Long posts) {
+        target.get(SuggestionType.CATEGORY).put(id, name, posts, List.of(name));
+    }
+
+    private static void putAuthor(Map<SuggestionType, PrefixTrie> target, long id, String firstName, String lastName, Long posts) {
+        target.get(SuggestionType.AUTHOR).put(id, firstName + " " + lastName, posts,
+                List.of(firstName + " " + lastName, lastName + " " + firstName));
+    }
+
+    public void putPost(long id, String title) {
+        TransactionHooks.afterCommit(() -> apply(target -> putPost(target, id, title, null)));
+    }
+
+    public void putCategory(long id, String name) {
+        TransactionHooks.afterCommit(() -> apply(target -> putCategory(target, id, name, null)));
+    }
+
+    public void putAuthor(long id, String firstName, String lastName) {
+        TransactionHooks.afterCommit(() -> apply(target -> putAuthor(target, id, firstName, lastName, null)));
+    }
+
+    public void remove(SuggestionType type, Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        TransactionHooks.afterCommit(() -> apply(target -> removed.forEach(target.get(type)::remove)));
+    }
+
+    /**
+     * Adds views already written to post.view_count to the weights of the posts.
+     */
+    public void addPostViews(Map<Long, Long> viewsByPostId) {
+        Map<Long, Long> added = Map.copyOf(viewsByPostId);
+        apply(target -> added.forEach(target.get(SuggestionType.POST)::addWeight));
+    }
+
+    private synchronized void apply(Consumer<Map<SuggestionType, PrefixTrie>> change) {
+        change.accept(tries);
+
+        if (replayLog != null) {
+            replayLog.add(change);
+        }
+    }
+
+    public List<SuggestionDto> suggest(SuggestionType type, String prefix, int limit) {
+        return tries.get(type).suggest(prefix, limit).stream()
+                .map(entry -> SuggestionDto.builder()
+                        .type(type.name())
+                        .id(entry.id())
+                        .text(entry.text())
+                        .weight(entry.weight())
+                        .build())
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        synchronized (this) {
+            replayLog = new ArrayList<>();
+        }
+
+        rebuilder.execute(this::runRebuild);
+    }
+
+    private void runRebuild() {
+        Map<SuggestionType, PrefixTrie> rebuilt = emptyTries();
+        long started = System.currentTimeMillis();
+
+        try {
+            long[] afterId = {0};
+            int read;
+
+            do {
+                read = jdbcTemplate.query(POSTS, rs -> {
+                    int rows = 0;
+
+                    while (rs.next()) {
+                        afterId[0] = rs.getLong("id");
+                        putPost(rebuilt, afterId[0], rs.getString("title"), rs.getLong("view_count"));
+                        rows++;
+                    }
+
+                    return rows;
+                }, afterId[0], rebuildBatchSize);
+            } while (read == rebuildBatchSize);
+
+            jdbcTemplate.query(CATEGORIES, rs -> {
+                putCategory(rebuilt, rs.getLong("id"), rs.getString("name"), rs.getLong("posts"));
+            });
+
+            jdbcTemplate.query(AUTHORS, rs -> {
+                putAuthor(rebuilt, rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"), rs.getLong("posts"));
+            });
+
+            synchronized (this) {
+                replayLog.forEach(change -> change.accept(rebuilt));
+                replayLog = null;
+                tries = rebuilt;
+            }
+
+            log.info("Suggestion tries rebuilt in {} ms.", System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            synchronized (this) {
+                replayLog = null;
+            }
+
+            log.error("Suggestion tries rebuild failed, keeping the current ones: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.suggest.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.suggest.refresh-interval-ms:600000}")
+    public void refreshPostCounts() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        rebuilder.execute(this::runRefreshPostCounts);
+    }
+
+    private void runRefreshPostCounts() {
+        Map<Long, Long> postsByCategory = new HashMap<>();
+        Map<Long, Long> postsByAuthor = new HashMap<>();
+
+        try {
+            jdbcTemplate.query(CATEGORIES, rs -> {
+                postsByCategory.put(rs.getLong("id"), rs.getLong("posts"));
+            });
+
+            jdbcTemplate.query(AUTHORS, rs -> {
+                postsByAuthor.put(rs.getLong("id"), rs.getLong("posts"));
+            });
+
+            apply(target -> {
+                postsByCategory.forEach(target.get(SuggestionType.CATEGORY)::setWeight);
+                postsByAuthor.forEach(target.get(SuggestionType.AUTHOR)::setWeight);
+            });
+        } catch (Exception e) {
+            log.error("Refreshing category and author post counts failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
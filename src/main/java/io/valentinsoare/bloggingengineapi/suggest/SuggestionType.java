@@ -0,0 +1,5 @@
+package io.valentinsoare.bloggingengineapi.suggest;
+
+public enum SuggestionType {
+    POST, CATEGORY, AUTHOR
+}
@@ -1,11 +1,15 @@
 package io.valentinsoare.bloggingengineapi.utilities;
 
+import java.util.Set;
 
 public class ApplicationConstants {
     public static final String DEFAULT_POSTS_PAGE_NO = "0";
     public static final String DEFAULT_POSTS_PAGE_SIZE = "10";
     public static final String DEFAULT_POSTS_SORT_BY = "id";
     public static final String DEFAULT_POSTS_SORT_DIR = "asc";
+    public static final Set<String> KEYSET_POSTS_SORT_BY = Set.of("id", "title");
+    public static final String DEFAULT_MOST_VIEWED_POSTS_LIMIT = "10";
+    public static final int MAX_MOST_VIEWED_POSTS_LIMIT = 100;
 
     public static final String DEFAULT_COMMENTS_PAGE_NO = "0";
     public static final String DEFAULT_COMMENTS_PAGE_SIZE = "5";
@@ -1,11 +1,17 @@
 package io.valentinsoare.bloggingengineapi.utilities;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.valentinsoare.bloggingengineapi.exception.PreconditionFailedException;
+import io.valentinsoare.bloggingengineapi.exception.ResourceViolationException;
 import lombok.Getter;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Objects;
+
 
 @Getter
 public class AuxiliaryMethods {
@@ -37,6 +43,33 @@ public class AuxiliaryMethods {
         return pageable;
     }
 
+    public Sort keysetSortWithDirections(String sortDir, String sortBy) {
+        Sort.Direction direction = Sort.Direction.ASC.name().equalsIgnoreCase(sortDir)
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+
+        Sort sort = Sort.by(direction, sortBy);
+
+        // the id tie-breaker keeps the seek predicate unique when sortBy is not
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    public String encodeCursor(KeysetCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(jsonStyle.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new ResourceViolationException("Cursor could not be encoded: %s".formatted(cursor));
+        }
+    }
+
+    public KeysetCursor decodeCursor(String cursor) {
+        try {
+            return jsonStyle.readValue(Base64.getUrlDecoder().decode(cursor), KeysetCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResourceViolationException("Invalid cursor: %s".formatted(cursor));
+        }
+    }
+
     public <T> T updateIfPresent(T newValue, T currentValue) {
         if (newValue instanceof String) {
             return !((String) newValue).isBlank() ? newValue : currentValue;
@@ -44,4 +77,29 @@ public class AuxiliaryMethods {
 
         return newValue != null ? newValue : currentValue;
     }
+
+    // null means the client sent no If-Match and the write is unconditional
+    public Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match needs a strong entity tag, got %s".formatted(ifMatch));
+        }
+
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not hold a version, got %s".formatted(ifMatch));
+        }
+    }
+
+    public void checkVersion(String resourceName, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !Objects.equals(expectedVersion, currentVersion)) {
+            throw new PreconditionFailedException("%s is at version %s, not %s".formatted(resourceName, currentVersion, expectedVersion));
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package io.valentinsoare.bloggingengineapi.utilities;
+
+import io.valentinsoare.bloggingengineapi.repository.VersionView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Validators for conditional requests, the entity tag is the row version, or for a whole table
+ * its table_version row, which every insert, update and delete bumps.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EntityVersion {
+    private final String eTag;
+    private final Instant lastModified;
+
+    public static EntityVersion of(Long version, Instant updatedAt) {
+        return new EntityVersion("\"%d\"".formatted(version), updatedAt);
+    }
+
+    public static EntityVersion of(VersionView view) {
+        return of(view.getVersion(), view.getUpdatedAt());
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
@@ -0,0 +1,25 @@
+package io.valentinsoare.bloggingengineapi.utilities;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetCursor {
+    private String sortBy;
+    private String sortDir;
+    private Map<String, Object> keys;
+
+    @Override
+    public String toString() {
+        return "KeysetCursor: [" +
+                "sortBy='" + sortBy + '\'' +
+                ", sortDir='" + sortDir + '\'' +
+                ", keys=" + keys +
+                ']';
+    }
+}
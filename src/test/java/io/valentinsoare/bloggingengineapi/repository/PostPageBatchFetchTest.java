@@ -0,0 +1,107 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import io.valentinsoare.bloggingengineapi.entity.Author;
+import io.valentinsoare.bloggingengineapi.entity.Category;
+import io.valentinsoare.bloggingengineapi.entity.Comment;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A page of posts with its categories, authors and comments must load in the same number of statements
+ * whatever the page size, as long as the page fits in one batch of hibernate.default_batch_fetch_size.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchfetch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;INIT=CREATE SCHEMA IF NOT EXISTS news_outlet_db",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostPageBatchFetchTest {
+    private static final int POSTS = 60;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < POSTS; i++) {
+            Category category = Category.builder()
+                    .name("category-" + i)
+                    .description("description " + i)
+                    .build();
+
+            Author author = Author.builder()
+                    .firstName("first-" + i)
+                    .lastName("last-" + i)
+                    .email("author" + i + "@example.com")
+                    .build();
+
+            Post post = new Post()
+                    .setTitle("title-" + i)
+                    .setDescription("description " + i)
+                    .setContent("content " + i)
+                    .setCategories(new HashSet<>(Set.of(category)))
+                    .setAuthors(new HashSet<>(Set.of(author)));
+
+            post.addComment(Comment.builder()
+                    .name("reader-" + i)
+                    .email("reader" + i + "@example.com")
+                    .body("comment " + i)
+                    .build());
+
+            entityManager.persist(post);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageOfPostsLoadsInConstantNumberOfStatements() {
+        assertEquals(statementsToLoadPage(10), statementsToLoadPage(50));
+    }
+
+    private long statementsToLoadPage(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Post> posts = postRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id"))).getContent();
+
+        assertEquals(pageSize, posts.size());
+
+        posts.forEach(post -> {
+            post.getCategories().size();
+            post.getAuthors().size();
+            post.getComments().size();
+        });
+
+        return statistics.getPrepareStatementCount();
+    }
+}
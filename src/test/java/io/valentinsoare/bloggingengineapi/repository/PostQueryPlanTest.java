@@ -0,0 +1,141 @@
+package io.valentinsoare.bloggingengineapi.repository;
+
+import io.valentinsoare.bloggingengineapi.entity.Author;
+import io.valentinsoare.bloggingengineapi.entity.Category;
+import io.valentinsoare.bloggingengineapi.entity.Post;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The post filters go through the join tables: the IN (...) subquery must probe post_author or post_category
+ * through an index leading with author_id or category_id, and the matching posts must be read by primary key,
+ * never by scanning a table. The plans come from H2 running the native queries of PostRepository as written.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;INIT=CREATE SCHEMA IF NOT EXISTS news_outlet_db\\\\;SET SCHEMA news_outlet_db",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostQueryPlanTest {
+    private static final int POSTS = 60;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < POSTS; i++) {
+            Category category = Category.builder()
+                    .name("category-" + i)
+                    .description("description " + i)
+                    .build();
+
+            Author author = Author.builder()
+                    .firstName("first-" + i)
+                    .lastName("last-" + i)
+                    .email("author" + i + "@example.com")
+                    .build();
+
+            entityManager.persist(new Post()
+                    .setTitle("title-" + i)
+                    .setDescription("description " + i)
+                    .setContent("content " + i)
+                    .setCategories(new HashSet<>(Set.of(category)))
+                    .setAuthors(new HashSet<>(Set.of(author))));
+        }
+
+        entityManager.flush();
+    }
+
+    @Test
+    void postsByAuthorIdProbePostAuthorByAuthor() throws Exception {
+        String plan = explain("getAllPostsByAuthorId", Map.of("id", "1"), Long.class, Pageable.class);
+
+        assertProbes(plan, "post_author", "author_id");
+        assertProbes(plan, "post", "id");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void postsByCategoryIdProbePostCategoryByCategory() throws Exception {
+        String plan = explain("getAllPostsByCategoryId", Map.of("categoryId", "1"), Long.class, Pageable.class);
+
+        assertProbes(plan, "post_category", "category_id");
+        assertProbes(plan, "post", "id");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void postsByAuthorIdAndCategoryIdProbeBothJoinTables() throws Exception {
+        String plan = explain("getPostsByAuthorIdAndCategoryId", Map.of("authorId", "1", "categoryId", "1"),
+                Long.class, Long.class, Pageable.class);
+
+        assertProbes(plan, "post_author", "author_id");
+        assertProbes(plan, "post_category", "category_id");
+        assertProbes(plan, "post", "id");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void postsByAuthorEmailProbePostAuthorByAuthor() throws Exception {
+        String plan = explain("getAllPostsByAuthorEmail", Map.of("email", "'author1@example.com'"), String.class, Pageable.class);
+
+        assertProbes(plan, "author", "email");
+        assertProbes(plan, "post_author", "author_id");
+        assertProbes(plan, "post", "id");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void postsByCategoryNameProbePostCategoryByCategory() throws Exception {
+        String plan = explain("getAllPostsByCategoryName", Map.of("categoryName", "'category-1'"), String.class, Pageable.class);
+
+        assertProbes(plan, "category", "name");
+        assertProbes(plan, "post_category", "category_id");
+        assertProbes(plan, "post", "id");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private String explain(String method, Map<String, String> parameters, Class<?>... parameterTypes) throws Exception {
+        String sql = PostRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            sql = sql.replace(":" + parameter.getKey(), parameter.getValue());
+        }
+
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    // H2 notes each table access as /* schema.index: condition */, so look for an index leading with the column
+    private void assertProbes(String plan, String table, String column) {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.index_columns "
+                        + "WHERE table_schema = 'news_outlet_db' AND table_name = ? AND column_name = ? AND ordinal_position = 1",
+                String.class, table, column);
+
+        assertTrue(indexes.stream().anyMatch(index -> plan.contains("news_outlet_db." + index + ": " + column)),
+                "%s is not probed through an index leading with %s %s:%n%s".formatted(table, column, indexes, plan));
+    }
+}